@@ -1,39 +1,125 @@
 package edu.byui.apj.storefront.apimongo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import edu.byui.apj.storefront.apimongo.repository.CardQuery;
+import edu.byui.apj.storefront.apimongo.repository.CardQueryCompiler;
+import edu.byui.apj.storefront.apimongo.repository.TradingCardCursor;
 import edu.byui.apj.storefront.apimongo.repository.TradingCardRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/trading-cards")
 public class TradingCardController {
 
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final int EXPORT_BATCH = 500;
+    private static final byte[] EVENT_PREFIX = "data:".getBytes(StandardCharsets.UTF_8);
+
     private final TradingCardRepository tradingCardRepository;
+    private final ObjectWriter cardWriter;
 
-    public TradingCardController(TradingCardRepository tradingCardRepository) {
+    public TradingCardController(TradingCardRepository tradingCardRepository, ObjectMapper objectMapper) {
         this.tradingCardRepository = tradingCardRepository;
+        this.cardWriter = objectMapper.writerFor(TradingCard.class);
     }
 
     // ✅ Get all trading cards (sorted and paginated)
+    // With a cursor the page is found by (sort field, _id) instead of skip(), so deep pages cost the same as page 0
     @GetMapping
     public ResponseEntity<List<TradingCard>> getAllTradingCards(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "8") int size,
-            @RequestParam(required = false) String sort) {
-        Pageable pageable;
-        if (sort == null || sort.isBlank()){
-            pageable = PageRequest.of(page, size);
-        } else {
-            Sort mysort = Sort.by(sort);
-            pageable = PageRequest.of(page, size, mysort);
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Set<String> fields) {
+        String sortField = (sort == null || sort.isBlank()) ? TradingCardCursor.ID_FIELD : sort;
+        if (page < 0 || size <= 0 || !projectable(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (cursor != null) {
+            TradingCardCursor after;
+            try {
+                after = TradingCardCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (!after.getSortField().equals(sortField)) {
+                return ResponseEntity.badRequest().build();
+            }
+            List<TradingCard> cards = tradingCardRepository.findPageAfter(sortField, after, size + 1, fields);
+            boolean hasNext = cards.size() > size;
+            return withNextLink(hasNext ? cards.subList(0, size) : cards, sortField, hasNext);
         }
-        return ResponseEntity.ok(tradingCardRepository.findAll(pageable).getContent());
+
+        // one extra card tells whether there is a next page, without a count query
+        List<TradingCard> cards = tradingCardRepository.findPage(sortField, (long) page * size, size + 1, fields);
+        boolean hasNext = cards.size() > size;
+        return withNextLink(hasNext ? cards.subList(0, size) : cards, sortField, hasNext);
+    }
+
+    private static boolean projectable(Set<String> fields) {
+        return fields == null || CardQueryCompiler.PROJECTABLE_FIELDS.containsAll(fields);
+    }
+
+    private ResponseEntity<List<TradingCard>> withNextLink(List<TradingCard> cards, String sortField, boolean hasNext) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext && !cards.isEmpty() && TradingCardCursor.SORT_FIELDS.contains(sortField)) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page")
+                    .replaceQueryParam("cursor", TradingCardCursor.after(sortField, cards.get(cards.size() - 1)).encode())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(cards);
+    }
+
+    // ✅ Export every trading card as NDJSON, or as server-sent events for text/event-stream
+    // Cards are read from a Mongo cursor one batch at a time and written as they arrive; a slow client
+    // blocks the write, so the next batch is not fetched until it catches up and nothing is buffered
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportTradingCards(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean events = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        StreamingResponseBody body = out -> {
+            try (Stream<TradingCard> cards = tradingCardRepository.streamAll(EXPORT_BATCH)) {
+                int written = 0;
+                for (Iterator<TradingCard> it = cards.iterator(); it.hasNext(); ) {
+                    if (events) {
+                        out.write(EVENT_PREFIX);
+                    }
+                    out.write(cardWriter.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                    if (events) {
+                        out.write('\n');
+                    }
+                    if (++written % EXPORT_BATCH == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(events ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // ✅ Get a trading card by ID
@@ -44,6 +130,19 @@ public class TradingCardController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ✅ Get many trading cards by ID in one round trip
+    // Cards come back in the order asked for; unknown and repeated ids are skipped
+    @PostMapping("/ids")
+    public ResponseEntity<List<TradingCard>> getTradingCardsByIds(@RequestBody List<String> ids) {
+        List<String> wanted = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (wanted.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, TradingCard> found = tradingCardRepository.findAllById(wanted).stream()
+                .collect(Collectors.toMap(TradingCard::get_id, Function.identity()));
+        return ResponseEntity.ok(wanted.stream().map(found::get).filter(Objects::nonNull).toList());
+    }
+
     // ✅ Create a new trading card
     @PostMapping
     public ResponseEntity<TradingCard> createTradingCard(@RequestBody TradingCard tradingCard) {
@@ -72,27 +171,64 @@ public class TradingCardController {
         return ResponseEntity.notFound().build();
     }
 
+    // ✅ Filter by any combination of specialties, price range and text, sorted, paged and projected
+    // All criteria go to Mongo as one query, so the browser no longer calls several endpoints and intersects
+    @GetMapping("/filter")
+    public ResponseEntity<List<TradingCard>> filterTradingCards(
+            @RequestParam(required = false) Set<String> specialty,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        CardQuery query = new CardQuery(specialty, minPrice, maxPrice, text, sort, fields, page, size);
+        try {
+            return ResponseEntity.ok(tradingCardRepository.findMatching(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ✅ Filter by specialty
     @GetMapping("/filter/specialty")
     public ResponseEntity<List<TradingCard>> filterBySpecialty(
-            @RequestParam String specialty) {
-        return ResponseEntity.ok(tradingCardRepository.findBySpecialty(specialty));
+            @RequestParam String specialty,
+            @RequestParam(required = false) Set<String> fields) {
+        if (!projectable(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tradingCardRepository.findBySpecialty(specialty, fields));
     }
 
     // ✅ Filter by price range
     @GetMapping("/filter/price")
     public ResponseEntity<List<TradingCard>> filterByPriceRange(
             @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) Set<String> fields) {
 
-        return ResponseEntity.ok(tradingCardRepository.findByPriceBetween(minPrice, maxPrice));
+        if (!projectable(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tradingCardRepository.findByPriceBetween(minPrice, maxPrice, fields));
     }
 
     // ✅ Search trading cards by name or contribution
+    // With the text index this is a word search ranked by score: "charles" finds Charles Babbage, "char" finds
+    // nothing. Only a collection without the index falls back to the substring regex, which scans every card.
     @GetMapping("/search")
     public ResponseEntity<List<TradingCard>> searchTradingCards(
-            @RequestParam String query) {
+            @RequestParam String query,
+            @RequestParam(required = false) Set<String> fields) {
 
-        return ResponseEntity.ok(tradingCardRepository.findByNameContainsIgnoreCaseOrContributionContainsIgnoreCase(query, query));
+        if (!projectable(fields)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TradingCard> cards = tradingCardRepository.hasTextIndex()
+                ? tradingCardRepository.searchText(query, fields)
+                : tradingCardRepository.searchSubstring(query, fields);
+        return ResponseEntity.ok(cards);
     }
 }
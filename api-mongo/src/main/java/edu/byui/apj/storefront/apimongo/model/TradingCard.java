@@ -1,17 +1,34 @@
 package edu.byui.apj.storefront.apimongo.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
+// ✅ Indexes are declared here and created or verified at startup by TradingCardIndexInitializer
 @Data
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
+// ✅ Fields left out by a projection are omitted from the JSON instead of sent as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Document
+@CompoundIndexes({
+        @CompoundIndex(name = "specialty_1_price_1", def = "{'specialty': 1, 'price': 1}"),
+        @CompoundIndex(name = "name_1__id_1", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "price_1__id_1", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "specialty_1__id_1", def = "{'specialty': 1, '_id': 1}")
+})
 public class TradingCard {
     private String _id;
+    @TextIndexed(weight = 3)
     private String name;
     private String specialty;
+    @TextIndexed
     private String contribution;
     private Double price;
     private String imageUrl;
-}
\ No newline at end of file
+}
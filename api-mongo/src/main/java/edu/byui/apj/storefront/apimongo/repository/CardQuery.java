@@ -0,0 +1,23 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * A combined catalog filter as the client sent it. Every criterion is optional: a null or empty
+ * value means no restriction. {@code sort} is a field name, prefixed with {@code -} for descending.
+ */
+@Data
+@AllArgsConstructor
+public class CardQuery {
+    private Set<String> specialties;
+    private Double minPrice;
+    private Double maxPrice;
+    private String text;
+    private String sort;
+    private Set<String> fields;
+    private int page;
+    private int size;
+}
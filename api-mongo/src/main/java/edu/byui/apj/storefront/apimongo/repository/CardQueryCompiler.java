@@ -0,0 +1,137 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a {@link CardQuery} into a single Mongo query: every criterion is and-ed into one filter,
+ * sorted with _id as the tie breaker, paged, projected and, where one fits the shape of the
+ * filter, pinned to an index. Hints are only given for indexes that exist, since Mongo rejects a
+ * query that hints at a missing one.
+ * <p>
+ * Text is looked up in the text index when there is one, matching whole (stemmed) words like the
+ * search endpoint; without it the text is matched as a substring, which scans every card.
+ */
+public class CardQueryCompiler {
+
+    public static final Set<String> PROJECTABLE_FIELDS = Set.of("name", "specialty", "contribution", "price", "imageUrl");
+    public static final int MAX_PAGE_SIZE = 200;
+
+    static final String SPECIALTY_PRICE_INDEX = "specialty_1_price_1";
+
+    public Query compile(CardQuery cardQuery, Set<String> existingIndexes, boolean textIndex) {
+        if (cardQuery.getPage() < 0 || cardQuery.getSize() <= 0 || cardQuery.getSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid page " + cardQuery.getPage() + " / size " + cardQuery.getSize());
+        }
+
+        List<Criteria> criteria = new ArrayList<>();
+        boolean bySpecialty = cardQuery.getSpecialties() != null && !cardQuery.getSpecialties().isEmpty();
+        boolean byPrice = cardQuery.getMinPrice() != null || cardQuery.getMaxPrice() != null;
+        if (bySpecialty) {
+            criteria.add(Criteria.where("specialty").in(cardQuery.getSpecialties()));
+        }
+        if (byPrice) {
+            Criteria price = Criteria.where("price");
+            if (cardQuery.getMinPrice() != null) {
+                price.gte(cardQuery.getMinPrice());
+            }
+            if (cardQuery.getMaxPrice() != null) {
+                price.lte(cardQuery.getMaxPrice());
+            }
+            criteria.add(price);
+        }
+        boolean byText = cardQuery.getText() != null && !cardQuery.getText().isBlank();
+        boolean textSearch = byText && textIndex;
+        if (byText && !textIndex) {
+            // quoted, so the client's text is matched literally and cannot inject regex syntax
+            Pattern text = Pattern.compile(Pattern.quote(cardQuery.getText().trim()), Pattern.CASE_INSENSITIVE);
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("name").regex(text),
+                    Criteria.where("contribution").regex(text)));
+        }
+        // $text has to stay at the top level of the filter
+        Query query = textSearch
+                ? new Query(TextCriteria.forDefaultLanguage().matching(cardQuery.getText().trim()))
+                : new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+
+        String sortField = sortField(cardQuery.getSort());
+        Sort.Direction direction = cardQuery.getSort() != null && cardQuery.getSort().startsWith("-")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        query.with(TradingCardCursor.ID_FIELD.equals(sortField)
+                ? Sort.by(direction, sortField)
+                : Sort.by(direction, sortField).and(Sort.by(direction, TradingCardCursor.ID_FIELD)));
+        query.skip((long) cardQuery.getPage() * cardQuery.getSize()).limit(cardQuery.getSize());
+
+        project(query, cardQuery.getFields());
+
+        // Mongo picks the text index itself and refuses a hint next to $text
+        String hint = textSearch ? null : hint(bySpecialty, byPrice, sortField);
+        if (hint != null && existingIndexes.contains(hint)) {
+            query.withHint(hint);
+        }
+        return query;
+    }
+
+    /**
+     * Limits the returned documents to {@code fields} plus _id, and plus {@code required}, which
+     * callers use for fields they read back themselves (such as the sort field of a keyset cursor).
+     * Null or empty {@code fields} leaves the documents whole.
+     */
+    public static Query project(Query query, Set<String> fields, String... required) {
+        if (fields == null || fields.isEmpty()) {
+            return query;
+        }
+        for (String field : fields) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+        for (String field : required) {
+            if (!TradingCardCursor.ID_FIELD.equals(field)) {
+                query.fields().include(field);
+            }
+        }
+        return query;
+    }
+
+    private static String sortField(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return TradingCardCursor.ID_FIELD;
+        }
+        String field = sort.startsWith("-") ? sort.substring(1) : sort;
+        if (!TradingCardCursor.SORT_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Unknown sort field: " + sort);
+        }
+        return field;
+    }
+
+    // The selective predicate picks the index; with no predicate the sort index saves an in-memory sort
+    private static String hint(boolean bySpecialty, boolean byPrice, String sortField) {
+        if (bySpecialty) {
+            return SPECIALTY_PRICE_INDEX;
+        }
+        if (byPrice) {
+            return sortIndex("price");
+        }
+        if (!TradingCardCursor.ID_FIELD.equals(sortField)) {
+            return sortIndex(sortField);
+        }
+        return null;
+    }
+
+    static String sortIndex(String field) {
+        return field + "_1__id_1";
+    }
+}
@@ -0,0 +1,61 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Keyset position in a sorted card listing: the sort field, the last value of that field that was
+ * returned and the last _id, which breaks ties. Clients only ever see the encoded, opaque form.
+ */
+@Data
+@AllArgsConstructor
+public class TradingCardCursor {
+
+    public static final String ID_FIELD = "_id";
+    public static final Set<String> SORT_FIELDS = Set.of(ID_FIELD, "name", "price", "specialty");
+
+    private String sortField;
+    private String lastId;
+    private Object lastValue;
+
+    public static TradingCardCursor after(String sortField, TradingCard card) {
+        Object value = switch (sortField) {
+            case "name" -> card.getName();
+            case "price" -> card.getPrice();
+            case "specialty" -> card.getSpecialty();
+            default -> null;
+        };
+        return new TradingCardCursor(sortField, card.get_id(), value);
+    }
+
+    public String encode() {
+        String type = lastValue == null ? "n" : lastValue instanceof Double ? "d" : "s";
+        String value = lastValue == null ? "" : lastValue.toString();
+        String raw = sortField + "\n" + lastId + "\n" + type + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TradingCardCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4 || !SORT_FIELDS.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            Object value = switch (parts[2]) {
+                case "n" -> null;
+                case "d" -> Double.valueOf(parts[3]);
+                case "s" -> parts[3];
+                default -> throw new IllegalArgumentException("Invalid cursor: " + token);
+            };
+            return new TradingCardCursor(parts[0], parts[1], value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on {@link TradingCard} and then reports any that are still missing.
+ * <p>
+ * Runs on its own thread once the application is ready, so an unreachable Mongo (each call waits
+ * out the server selection timeout) never holds up startup. Until it finishes, queries use
+ * whatever indexes already exist; afterwards the repository re-reads the index list. With
+ * {@code storefront.mongo.create-indexes=false} nothing is created and the report alone shows
+ * what the deployment still needs.
+ */
+@Slf4j
+@Component
+public class TradingCardIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final TradingCardRepository tradingCardRepository;
+    private final boolean createIndexes;
+
+    public TradingCardIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                       TradingCardRepository tradingCardRepository,
+                                       @Value("${storefront.mongo.create-indexes:true}") boolean createIndexes) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.tradingCardRepository = tradingCardRepository;
+        this.createIndexes = createIndexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("trading-card-indexes").start(this::initialize);
+    }
+
+    void initialize() {
+        IndexOperations indexOps = mongoTemplate.indexOps(TradingCard.class);
+        List<IndexDefinition> declared = new ArrayList<>();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(TradingCard.class).forEach(declared::add);
+
+        if (createIndexes) {
+            for (IndexDefinition index : declared) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessException e) {
+                    // e.g. a different text index already exists; the report below lists it as missing
+                    log.warn("Could not create index {} on {}: {}", name(index),
+                            mongoTemplate.getCollectionName(TradingCard.class), e.getMessage());
+                }
+            }
+        }
+
+        try {
+            report(declared, indexOps.getIndexInfo());
+            tradingCardRepository.refreshIndexes();
+        } catch (DataAccessException e) {
+            log.warn("Could not read indexes of {}: {}", mongoTemplate.getCollectionName(TradingCard.class), e.getMessage());
+        }
+    }
+
+    private void report(List<IndexDefinition> declared, List<IndexInfo> existing) {
+        Set<String> existingNames = existing.stream().map(IndexInfo::getName).collect(Collectors.toSet());
+        List<String> missing = declared.stream()
+                .map(TradingCardIndexInitializer::name)
+                .filter(name -> !existingNames.contains(name))
+                .toList();
+        if (missing.isEmpty()) {
+            log.info("All {} indexes declared on {} are present", declared.size(),
+                    mongoTemplate.getCollectionName(TradingCard.class));
+        } else {
+            log.warn("Missing indexes on {}: {}; queries that rely on them fall back to collection scans",
+                    mongoTemplate.getCollectionName(TradingCard.class), missing);
+        }
+    }
+
+    private static String name(IndexDefinition index) {
+        return String.valueOf(index.getIndexOptions().get("name"));
+    }
+}
@@ -0,0 +1,46 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Card queries that take a {@code fields} projection, pushed down to Mongo so that fields the
+ * caller does not need never leave the database. Null or empty {@code fields} returns whole cards.
+ */
+public interface TradingCardRepositoryCustom {
+
+    // Offset page: cards sorted by sortField then _id, skipping the first skip of them
+    List<TradingCard> findPage(String sortField, long skip, int limit, Set<String> fields);
+
+    // Keyset page: cards sorted by sortField then _id, starting after the cursor (or at the start when null)
+    List<TradingCard> findPageAfter(String sortField, TradingCardCursor cursor, int limit, Set<String> fields);
+
+    List<TradingCard> findBySpecialty(String specialty, Set<String> fields);
+
+    // Prices strictly between the bounds
+    List<TradingCard> findByPriceBetween(Double minPrice, Double maxPrice, Set<String> fields);
+
+    // One page of cards matching every criterion of the query, compiled into a single Mongo query;
+    // the text criterion goes through the text index when there is one
+    List<TradingCard> findMatching(CardQuery query);
+
+    // Whether the collection has the text index that searchText needs
+    boolean hasTextIndex();
+
+    // Drops the cached index list so the next query reads it again, e.g. after indexes were created
+    void refreshIndexes();
+
+    // Cards matching whole (stemmed) words of the text through the $text index, best score first;
+    // a partial word such as "char" matches nothing. Empty when there is no text index; if the index
+    // disappears after it was cached, the cache is refreshed and the substring search answers instead.
+    List<TradingCard> searchText(String text, Set<String> fields);
+
+    // Cards whose name or contribution contains the text, ignoring case; scans the collection
+    List<TradingCard> searchSubstring(String text, Set<String> fields);
+
+    // Every card in _id order, read lazily from a server-side cursor; the caller must close the stream
+    Stream<TradingCard> streamAll(int batchSize);
+}
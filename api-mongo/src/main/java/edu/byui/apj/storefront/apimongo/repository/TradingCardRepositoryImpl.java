@@ -0,0 +1,171 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import com.mongodb.MongoServerException;
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TradingCardRepositoryImpl implements TradingCardRepositoryCustom {
+
+    // server error code for a $text query on a collection without a text index
+    private static final int INDEX_NOT_FOUND = 27;
+
+    private final MongoTemplate mongoTemplate;
+    private final CardQueryCompiler compiler = new CardQueryCompiler();
+    private volatile List<IndexInfo> indexes;
+
+    public TradingCardRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<TradingCard> findPage(String sortField, long skip, int limit, Set<String> fields) {
+        return mongoTemplate.find(sortedQuery(sortField, limit, fields).skip(skip), TradingCard.class);
+    }
+
+    @Override
+    public List<TradingCard> findPageAfter(String sortField, TradingCardCursor cursor, int limit, Set<String> fields) {
+        Query query = sortedQuery(sortField, limit, fields);
+        if (cursor != null) {
+            query.addCriteria(after(sortField, cursor));
+        }
+        return mongoTemplate.find(query, TradingCard.class);
+    }
+
+    // the sort field stays in the projection, the next-page cursor is built from it
+    private static Query sortedQuery(String sortField, int limit, Set<String> fields) {
+        Query query = new Query().limit(limit);
+        if (TradingCardCursor.ID_FIELD.equals(sortField)) {
+            query.with(Sort.by(TradingCardCursor.ID_FIELD));
+        } else {
+            query.with(Sort.by(sortField).and(Sort.by(TradingCardCursor.ID_FIELD)));
+        }
+        return CardQueryCompiler.project(query, fields, sortField);
+    }
+
+    @Override
+    public List<TradingCard> findBySpecialty(String specialty, Set<String> fields) {
+        Query query = new Query(Criteria.where("specialty").is(specialty));
+        return mongoTemplate.find(CardQueryCompiler.project(query, fields), TradingCard.class);
+    }
+
+    @Override
+    public List<TradingCard> findByPriceBetween(Double minPrice, Double maxPrice, Set<String> fields) {
+        // exclusive bounds, as the derived findByPriceBetween query had
+        Query query = new Query(Criteria.where("price").gt(minPrice).lt(maxPrice));
+        return mongoTemplate.find(CardQueryCompiler.project(query, fields), TradingCard.class);
+    }
+
+    @Override
+    public List<TradingCard> findMatching(CardQuery cardQuery) {
+        boolean textIndex = hasTextIndex();
+        try {
+            return mongoTemplate.find(compiler.compile(cardQuery, indexNames(), textIndex), TradingCard.class);
+        } catch (DataAccessException e) {
+            if (!textIndex || !missingTextIndex(e)) {
+                throw e;
+            }
+            // as in searchText: the cached list still had the text index, so re-read it and match substrings
+            refreshIndexes();
+            return mongoTemplate.find(compiler.compile(cardQuery, indexNames(), false), TradingCard.class);
+        }
+    }
+
+    private Set<String> indexNames() {
+        return indexes().stream().map(IndexInfo::getName).collect(Collectors.toSet());
+    }
+
+    @Override
+    public boolean hasTextIndex() {
+        return indexes().stream()
+                .flatMap(index -> index.getIndexFields().stream())
+                .anyMatch(IndexField::isText);
+    }
+
+    @Override
+    public List<TradingCard> searchText(String text, Set<String> fields) {
+        if (!hasTextIndex()) {
+            return List.of();
+        }
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+        try {
+            return mongoTemplate.find(CardQueryCompiler.project(query, fields), TradingCard.class);
+        } catch (DataAccessException e) {
+            if (!missingTextIndex(e)) {
+                throw e;
+            }
+            // the text index was dropped after the list was cached; re-read it and answer without it
+            refreshIndexes();
+            return searchSubstring(text, fields);
+        }
+    }
+
+    @Override
+    public List<TradingCard> searchSubstring(String text, Set<String> fields) {
+        Pattern pattern = Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("name").regex(pattern),
+                Criteria.where("contribution").regex(pattern)));
+        return mongoTemplate.find(CardQueryCompiler.project(query, fields), TradingCard.class);
+    }
+
+    @Override
+    public void refreshIndexes() {
+        indexes = null;
+    }
+
+    static boolean missingTextIndex(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoServerException server && server.getCode() == INDEX_NOT_FOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Read on the first query that needs it and again after every refreshIndexes()
+    private List<IndexInfo> indexes() {
+        List<IndexInfo> current = indexes;
+        if (current == null) {
+            current = List.copyOf(mongoTemplate.indexOps(TradingCard.class).getIndexInfo());
+            indexes = current;
+        }
+        return current;
+    }
+
+    @Override
+    public Stream<TradingCard> streamAll(int batchSize) {
+        // the driver fetches the next batch only once the previous one has been consumed
+        Query query = new Query().with(Sort.by(TradingCardCursor.ID_FIELD)).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, TradingCard.class);
+    }
+
+    // (field, _id) > (lastValue, lastId), with nulls sorting first the way Mongo orders them
+    private static Criteria after(String sortField, TradingCardCursor cursor) {
+        Criteria laterId = Criteria.where(TradingCardCursor.ID_FIELD).gt(cursor.getLastId());
+        if (TradingCardCursor.ID_FIELD.equals(sortField)) {
+            return laterId;
+        }
+        if (cursor.getLastValue() == null) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortField).ne(null),
+                    new Criteria().andOperator(Criteria.where(sortField).is(null), laterId));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(sortField).gt(cursor.getLastValue()),
+                new Criteria().andOperator(Criteria.where(sortField).is(cursor.getLastValue()), laterId));
+    }
+}
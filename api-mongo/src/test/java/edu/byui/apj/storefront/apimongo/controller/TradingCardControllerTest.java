@@ -0,0 +1,141 @@
+package edu.byui.apj.storefront.apimongo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import edu.byui.apj.storefront.apimongo.repository.TradingCardCursor;
+import edu.byui.apj.storefront.apimongo.repository.TradingCardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class TradingCardControllerTest {
+
+    @Mock
+    private TradingCardRepository tradingCardRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TradingCardController(tradingCardRepository, new ObjectMapper()))
+                .build();
+    }
+
+    @Test
+    void exportWritesOneCardPerLineAsNdjson() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(tradingCardRepository.streamAll(anyInt()))
+                .thenReturn(Stream.of(card("1", "Ada"), card("2", "Grace")).onClose(() -> closed.set(true)));
+
+        MvcResult started = mockMvc.perform(get("/api/trading-cards/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"_id\":\"1\",\"name\":\"Ada\",\"specialty\":\"Computing\",\"price\":5.0}\n"
+                                + "{\"_id\":\"2\",\"name\":\"Grace\",\"specialty\":\"Computing\",\"price\":5.0}\n"));
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void exportFramesEachCardAsAServerSentEvent() throws Exception {
+        when(tradingCardRepository.streamAll(anyInt())).thenReturn(Stream.of(card("1", "Ada"), card("2", "Grace")));
+
+        MvcResult started = mockMvc.perform(get("/api/trading-cards/export").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(
+                        "data:{\"_id\":\"1\",\"name\":\"Ada\",\"specialty\":\"Computing\",\"price\":5.0}\n\n"
+                                + "data:{\"_id\":\"2\",\"name\":\"Grace\",\"specialty\":\"Computing\",\"price\":5.0}\n\n"));
+    }
+
+    @Test
+    void cardsByIdsKeepTheRequestedOrderAndSkipUnknownIds() throws Exception {
+        when(tradingCardRepository.findAllById(List.of("3", "1", "missing")))
+                .thenReturn(List.of(card("1", "Ada"), card("3", "Grace")));
+
+        mockMvc.perform(post("/api/trading-cards/ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"3\", \"1\", \"missing\", \"3\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]._id", is("3")))
+                .andExpect(jsonPath("$[1]._id", is("1")));
+    }
+
+    @Test
+    void moreThanTheBatchLimitOfIdsIsRejected() throws Exception {
+        String ids = IntStream.rangeClosed(1, 1001).mapToObj(i -> "\"" + i + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        mockMvc.perform(post("/api/trading-cards/ids").contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(tradingCardRepository);
+    }
+
+    @Test
+    void repeatedIdsCountOnceTowardsTheBatchLimit() throws Exception {
+        String ids = IntStream.rangeClosed(1, 1001).mapToObj(i -> i == 1001 ? "\"1\"" : "\"" + i + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+        when(tradingCardRepository.findAllById(anyList())).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/trading-cards/ids").contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cursorForAnotherSortIsRejected() throws Exception {
+        String byName = new TradingCardCursor("name", "42", "Ada").encode();
+
+        mockMvc.perform(get("/api/trading-cards").param("sort", "price").param("cursor", byName))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(tradingCardRepository);
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/trading-cards").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(tradingCardRepository);
+    }
+
+    private static TradingCard card(String id, String name) {
+        return new TradingCard(id, name, "Computing", null, 5.0, null);
+    }
+}
@@ -0,0 +1,51 @@
+package edu.byui.apj.storefront.apimongo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.byui.apj.storefront.apimongo.repository.TradingCardRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TradingCardSearchTest {
+
+    @Mock
+    private TradingCardRepository tradingCardRepository;
+
+    @Test
+    void partialWordWithTextIndexFindsNothingInsteadOfScanning() {
+        when(tradingCardRepository.hasTextIndex()).thenReturn(true);
+        when(tradingCardRepository.searchText(eq("char"), any())).thenReturn(List.of());
+
+        ResponseEntity<?> response = controller().searchTradingCards("char", null);
+
+        assertThat(response.getBody()).isEqualTo(List.of());
+        verify(tradingCardRepository, never()).searchSubstring(any(), any());
+    }
+
+    @Test
+    void withoutTextIndexSearchesSubstrings() {
+        when(tradingCardRepository.hasTextIndex()).thenReturn(false);
+        when(tradingCardRepository.searchSubstring(eq("char"), any())).thenReturn(List.of());
+
+        controller().searchTradingCards("char", null);
+
+        verify(tradingCardRepository).searchSubstring(eq("char"), any());
+        verify(tradingCardRepository, never()).searchText(any(), any());
+    }
+
+    private TradingCardController controller() {
+        return new TradingCardController(tradingCardRepository, new ObjectMapper());
+    }
+}
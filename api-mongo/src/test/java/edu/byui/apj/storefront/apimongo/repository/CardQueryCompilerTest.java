@@ -0,0 +1,87 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardQueryCompilerTest {
+
+    private final CardQueryCompiler compiler = new CardQueryCompiler();
+
+    @Test
+    void combinesEveryCriterionIntoOneQuery() {
+        CardQuery cardQuery = new CardQuery(Set.of("Programming Languages", "Algorithms_Theory"),
+                10.0, 50.0, "java", "-price", Set.of("name", "price"), 2, 20);
+
+        Query query = compiler.compile(cardQuery, Set.of(CardQueryCompiler.SPECIALTY_PRICE_INDEX), false);
+
+        List<?> and = query.getQueryObject().get("$and", List.class);
+        assertThat(and).hasSize(3);
+        assertThat(query.getSortObject()).isEqualTo(new Document("price", -1).append("_id", -1));
+        assertThat(query.getSkip()).isEqualTo(40);
+        assertThat(query.getLimit()).isEqualTo(20);
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("name", 1).append("price", 1));
+        assertThat(query.getHint()).isEqualTo(CardQueryCompiler.SPECIALTY_PRICE_INDEX);
+    }
+
+    @Test
+    void hintsOnlyAtIndexesThatExist() {
+        CardQuery byPrice = new CardQuery(null, 10.0, null, null, null, null, 0, 20);
+
+        assertThat(compiler.compile(byPrice, Set.of(), false).getHint()).isNull();
+        assertThat(compiler.compile(byPrice, Set.of("price_1__id_1"), false).getHint()).isEqualTo("price_1__id_1");
+    }
+
+    @Test
+    void textGoesThroughTheTextIndexWhenThereIsOne() {
+        CardQuery cardQuery = new CardQuery(Set.of("Algorithms_Theory"), null, null, " java ", null, null, 0, 20);
+
+        Query query = compiler.compile(cardQuery, Set.of(CardQueryCompiler.SPECIALTY_PRICE_INDEX), true);
+
+        assertThat(query.getQueryObject().get("$text", Document.class).getString("$search")).isEqualTo("java");
+        assertThat(query.getQueryObject().get("$and", List.class)).hasSize(1);
+        assertThat(query.getHint()).isNull();
+    }
+
+    @Test
+    void textIsMatchedLiterallyIgnoringCase() {
+        CardQuery cardQuery = new CardQuery(null, null, null, "C++ (", null, null, 0, 20);
+
+        Document filter = compiler.compile(cardQuery, Set.of(), false).getQueryObject();
+
+        Document or = (Document) filter.get("$and", List.class).get(0);
+        Document name = (Document) or.get("$or", List.class).get(0);
+        Pattern pattern = (Pattern) name.get("name");
+        assertThat(pattern.matcher("inventor of c++ (1985)").find()).isTrue();
+        assertThat(pattern.matcher("inventor of c").find()).isFalse();
+    }
+
+    @Test
+    void projectionKeepsFieldsTheCallerReadsBack() {
+        Query query = CardQueryCompiler.project(new Query(), Set.of("name", "imageUrl"), "price");
+
+        assertThat(query.getFieldsObject())
+                .containsOnlyKeys("name", "imageUrl", "price");
+        assertThat(CardQueryCompiler.project(new Query(), null, "price").getFieldsObject()).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownSortAndProjectionFields() {
+        assertThatThrownBy(() -> compiler.compile(
+                new CardQuery(null, null, null, null, "password", null, 0, 20), Set.of(), false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compiler.compile(
+                new CardQuery(null, null, null, null, null, Set.of("$where"), 0, 20), Set.of(), false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compiler.compile(
+                new CardQuery(null, null, null, null, null, null, 0, CardQueryCompiler.MAX_PAGE_SIZE + 1), Set.of(), false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
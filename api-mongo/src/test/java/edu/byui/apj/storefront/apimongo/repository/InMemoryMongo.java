@@ -0,0 +1,90 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Runs the filter, sort, skip and limit of a query over a list of cards, with Mongo's ordering
+ * (null before numbers before strings). Covers only the operators the repository builds for paging:
+ * equality, $gt, $ne, $and and $or.
+ */
+final class InMemoryMongo {
+
+    private InMemoryMongo() {
+    }
+
+    static List<TradingCard> find(List<TradingCard> cards, Query query) {
+        Comparator<TradingCard> order = (a, b) -> 0;
+        for (Map.Entry<String, Object> sort : query.getSortObject().entrySet()) {
+            Comparator<TradingCard> byField = Comparator.comparing(card -> value(card, sort.getKey()), InMemoryMongo::compare);
+            order = order.thenComparing(((Number) sort.getValue()).intValue() < 0 ? byField.reversed() : byField);
+        }
+        return cards.stream()
+                .filter(card -> matches(query.getQueryObject(), card))
+                .sorted(order)
+                .skip(query.getSkip())
+                .limit(query.getLimit() > 0 ? query.getLimit() : Long.MAX_VALUE)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Document filter, TradingCard card) {
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            boolean matched = switch (entry.getKey()) {
+                case "$and" -> ((List<Document>) entry.getValue()).stream().allMatch(part -> matches(part, card));
+                case "$or" -> ((List<Document>) entry.getValue()).stream().anyMatch(part -> matches(part, card));
+                default -> matches(value(card, entry.getKey()), entry.getValue());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Object actual, Object condition) {
+        if (!(condition instanceof Document operators)) {
+            return Objects.equals(actual, condition);
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            boolean matched = switch (operator.getKey()) {
+                // comparisons only match values of the same type, so never null
+                case "$gt" -> actual != null && operator.getValue() != null
+                        && actual.getClass() == operator.getValue().getClass()
+                        && compare(actual, operator.getValue()) > 0;
+                case "$ne" -> !Objects.equals(actual, operator.getValue());
+                default -> throw new IllegalArgumentException("Unsupported operator " + operator.getKey());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object value(TradingCard card, String field) {
+        return switch (field) {
+            case TradingCardCursor.ID_FIELD -> card.get_id();
+            case "name" -> card.getName();
+            case "specialty" -> card.getSpecialty();
+            case "price" -> card.getPrice();
+            default -> throw new IllegalArgumentException("Unsupported field " + field);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        int rank = Integer.compare(rank(a), rank(b));
+        return rank != 0 ? rank : a == null ? 0 : ((Comparable) a).compareTo(b);
+    }
+
+    private static int rank(Object value) {
+        return value == null ? 0 : value instanceof Number ? 1 : 2;
+    }
+}
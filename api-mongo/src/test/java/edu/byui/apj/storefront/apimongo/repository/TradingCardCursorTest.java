@@ -0,0 +1,53 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradingCardCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        TradingCard card = new TradingCard("42", "Ada Lovelace", "Computing", "Notes", 12.5, null);
+
+        assertThat(TradingCardCursor.decode(TradingCardCursor.after("price", card).encode()))
+                .isEqualTo(new TradingCardCursor("price", "42", 12.5));
+        assertThat(TradingCardCursor.decode(TradingCardCursor.after("name", card).encode()))
+                .isEqualTo(new TradingCardCursor("name", "42", "Ada Lovelace"));
+        assertThat(TradingCardCursor.decode(TradingCardCursor.after("_id", card).encode()))
+                .isEqualTo(new TradingCardCursor("_id", "42", null));
+    }
+
+    @Test
+    void valuesWithSeparatorsSurviveTheRoundTrip() {
+        TradingCard card = new TradingCard("7", "Line\nbreak", null, null, null, null);
+
+        assertThat(TradingCardCursor.decode(TradingCardCursor.after("name", card).encode()).getLastValue())
+                .isEqualTo("Line\nbreak");
+        assertThat(TradingCardCursor.decode(TradingCardCursor.after("specialty", card).encode()).getLastValue())
+                .isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> TradingCardCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TradingCardCursor.decode(encoded("name\n42")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TradingCardCursor.decode(encoded("contribution\n42\ns\nx")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TradingCardCursor.decode(encoded("price\n42\nx\n1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TradingCardCursor.decode(encoded("price\n42\nd\ncheap")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,135 @@
+package edu.byui.apj.storefront.apimongo.repository;
+
+import com.mongodb.MongoQueryException;
+import com.mongodb.ServerAddress;
+import edu.byui.apj.storefront.apimongo.model.TradingCard;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TradingCardRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Test
+    void droppedTextIndexRefreshesTheCacheAndFallsBackToSubstrings() {
+        IndexInfo textIndex = new IndexInfo(List.of(IndexField.text("name", 1f)), "name_text", false, false, "english");
+        when(mongoTemplate.indexOps(TradingCard.class)).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(textIndex), List.of());
+        when(mongoTemplate.find(argThat((Query query) -> query instanceof TextQuery), eq(TradingCard.class)))
+                .thenThrow(new UncategorizedMongoDbException("text index required for $text query", indexNotFound()));
+        TradingCard card = new TradingCard("1", "Ada", "Computing", "Charted the engine", 9.5, null);
+        when(mongoTemplate.find(argThat((Query query) -> !(query instanceof TextQuery)), eq(TradingCard.class)))
+                .thenReturn(List.of(card));
+        TradingCardRepositoryImpl repository = new TradingCardRepositoryImpl(mongoTemplate);
+
+        assertThat(repository.searchText("char", Set.of())).containsExactly(card);
+        assertThat(repository.hasTextIndex()).isFalse();
+        verify(indexOperations, times(2)).getIndexInfo();
+    }
+
+    @Test
+    void otherQueryFailuresAreNotMistakenForAMissingIndex() {
+        assertThat(TradingCardRepositoryImpl.missingTextIndex(
+                new UncategorizedMongoDbException("boom", new IllegalStateException()))).isFalse();
+        assertThat(TradingCardRepositoryImpl.missingTextIndex(
+                new UncategorizedMongoDbException("text index required", indexNotFound()))).isTrue();
+    }
+
+    @Test
+    void cursorPagesMatchOffsetPagesForEverySortField() {
+        // ties on every sort field, and cards without a name or price, which sort first
+        List<TradingCard> cards = List.of(
+                card("01", "Ada", "Computing", 5.0), card("02", "Ada", "Math", 5.0),
+                card("03", null, "Math", null), card("04", "Grace", "Computing", 2.5),
+                card("05", "Ada", "Computing", null), card("06", "Alan", "Math", 5.0),
+                card("07", null, "Physics", 2.5), card("08", "Grace", "Computing", 5.0),
+                card("09", "Marie", "Physics", 9.0), card("10", "Alan", "Computing", 2.5),
+                card("11", "Ada", "Physics", 5.0));
+        when(mongoTemplate.find(any(Query.class), eq(TradingCard.class)))
+                .thenAnswer(invocation -> InMemoryMongo.find(cards, invocation.getArgument(0)));
+        TradingCardRepositoryImpl repository = new TradingCardRepositoryImpl(mongoTemplate);
+
+        for (String sortField : TradingCardCursor.SORT_FIELDS) {
+            for (int size = 1; size <= 4; size++) {
+                List<String> byOffset = new ArrayList<>();
+                for (int page = 0; ; page++) {
+                    List<TradingCard> found = repository.findPage(sortField, (long) page * size, size, null);
+                    found.forEach(card -> byOffset.add(card.get_id()));
+                    if (found.size() < size) {
+                        break;
+                    }
+                }
+
+                List<String> byCursor = new ArrayList<>();
+                TradingCardCursor cursor = null;
+                while (true) {
+                    List<TradingCard> found = repository.findPageAfter(sortField, cursor, size, null);
+                    found.forEach(card -> byCursor.add(card.get_id()));
+                    if (found.size() < size) {
+                        break;
+                    }
+                    // the cursor goes through its encoded form, as it does between client and server
+                    cursor = TradingCardCursor.decode(TradingCardCursor.after(sortField, found.get(size - 1)).encode());
+                }
+
+                assertThat(byCursor).as("sort %s, size %d", sortField, size)
+                        .hasSize(cards.size())
+                        .isEqualTo(byOffset);
+            }
+        }
+    }
+
+    @Test
+    void cursorOnATieContinuesWithTheNextId() {
+        List<TradingCard> cards = List.of(card("1", "Ada", null, 5.0), card("2", "Ada", null, 5.0),
+                card("3", "Ada", null, 5.0), card("4", "Alan", null, 1.0));
+        when(mongoTemplate.find(any(Query.class), eq(TradingCard.class)))
+                .thenAnswer(invocation -> InMemoryMongo.find(cards, invocation.getArgument(0)));
+        TradingCardRepositoryImpl repository = new TradingCardRepositoryImpl(mongoTemplate);
+
+        assertThat(repository.findPageAfter("name", new TradingCardCursor("name", "2", "Ada"), 10, null))
+                .extracting(TradingCard::get_id).containsExactly("3", "4");
+        assertThat(repository.findPageAfter("price", new TradingCardCursor("price", "1", 5.0), 10, null))
+                .extracting(TradingCard::get_id).containsExactly("2", "3");
+    }
+
+    private static TradingCard card(String id, String name, String specialty, Double price) {
+        return new TradingCard(id, name, specialty, null, price, null);
+    }
+
+    private static MongoQueryException indexNotFound() {
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(27))
+                .append("errmsg", new BsonString("text index required for $text query"));
+        return new MongoQueryException(response, new ServerAddress());
+    }
+}
@@ -0,0 +1,353 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only, indexed view over the loaded trading cards.
+ * <p>
+ * Cards are kept column by column in id order: ids and prices (in cents) as primitive arrays,
+ * specialties as ordinals into a small table, the text fields as plain string arrays. On top of
+ * that everything is built once up front: positions sorted by name and by price, a postings list
+ * per specialty (kept in both orders) and the sorted cents column used for range lookups. A filter
+ * query is then a binary search for the price range on the right postings list plus a slice, and
+ * {@link TradingCard} objects are only created for the page that is returned. Text search goes
+ * through a {@link SearchIndex} built at the same time.
+ * <p>
+ * Prices are held to the cent; anything finer is rounded half up when the catalog is built.
+ */
+public final class CardCatalog {
+
+    private static final CardCatalog EMPTY = new CardCatalog(List.of());
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private final long[] ids;
+    private final String[] names;
+    private final int[] specialtyOrdinals;
+    private final String[] specialties;
+    private final String[] contributions;
+    private final long[] priceCents;
+    private final String[] imageUrls;
+
+    private final int[] nameRank;
+    private final Postings all;
+    private final Map<String, Postings> bySpecialty;
+    private final SearchIndex searchIndex;
+
+    private CardCatalog(List<TradingCard> source) {
+        // id order is the catalog's natural order; loaded cards already arrive that way
+        TradingCard[] sorted = source.stream()
+                .sorted(Comparator.comparingLong(TradingCard::getId))
+                .toArray(TradingCard[]::new);
+        int n = sorted.length;
+
+        this.ids = new long[n];
+        this.names = new String[n];
+        this.specialtyOrdinals = new int[n];
+        this.contributions = new String[n];
+        this.priceCents = new long[n];
+        this.imageUrls = new String[n];
+        Map<String, Integer> ordinals = new LinkedHashMap<>();
+        for (int pos = 0; pos < n; pos++) {
+            TradingCard card = sorted[pos];
+            ids[pos] = card.getId();
+            names[pos] = card.getName();
+            specialtyOrdinals[pos] = ordinals.computeIfAbsent(card.getSpecialty(), k -> ordinals.size());
+            contributions[pos] = card.getContribution();
+            priceCents[pos] = toCents(card.getPrice(), RoundingMode.HALF_UP);
+            imageUrls[pos] = card.getImageUrl();
+        }
+        this.specialties = ordinals.keySet().toArray(new String[0]);
+
+        Comparator<Integer> nameOrder = Comparator.comparing(pos -> names[pos]);
+        Comparator<Integer> priceOrder = Comparator.comparingLong(pos -> priceCents[pos]);
+        // List.sort is stable, so ties stay in id order just like the old sorted() stream did
+        int[] byName = sortedPositions(n, nameOrder);
+        int[] byPrice = sortedPositions(n, priceOrder);
+
+        this.nameRank = new int[n];
+        for (int rank = 0; rank < byName.length; rank++) {
+            nameRank[byName[rank]] = rank;
+        }
+        this.all = new Postings(byName, byPrice, priceCents);
+
+        String[] keys = new String[specialties.length];
+        Arrays.setAll(keys, ordinal -> specialtyKey(specialties[ordinal]));
+        Map<String, List<Integer>> namePostings = new HashMap<>();
+        Map<String, List<Integer>> pricePostings = new HashMap<>();
+        for (int pos : byName) {
+            namePostings.computeIfAbsent(keys[specialtyOrdinals[pos]], k -> new ArrayList<>()).add(pos);
+        }
+        for (int pos : byPrice) {
+            pricePostings.computeIfAbsent(keys[specialtyOrdinals[pos]], k -> new ArrayList<>()).add(pos);
+        }
+        Map<String, Postings> postingsBySpecialty = new HashMap<>();
+        namePostings.forEach((key, positions) -> postingsBySpecialty.put(key, new Postings(
+                toArray(positions), toArray(pricePostings.get(key)), priceCents)));
+        this.bySpecialty = Map.copyOf(postingsBySpecialty);
+        this.searchIndex = new SearchIndex(names, contributions);
+    }
+
+    public static CardCatalog of(List<TradingCard> cards) {
+        return cards.isEmpty() ? EMPTY : new CardCatalog(cards);
+    }
+
+    public static CardCatalog empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Every card, in id order. Builds a fresh object per card, so keep it off the read path.
+     */
+    public List<TradingCard> cards() {
+        return slice(0, ids.length);
+    }
+
+    /**
+     * Cards in id order, {@code limit} at most, starting at {@code offset}.
+     */
+    public List<TradingCard> slice(long offset, int limit) {
+        if (offset < 0 || limit <= 0 || offset >= ids.length) {
+            return List.of();
+        }
+        int from = (int) offset;
+        int to = (int) Math.min((long) from + limit, ids.length);
+        TradingCard[] page = new TradingCard[to - from];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = card(from + i);
+        }
+        return List.of(page);
+    }
+
+    /**
+     * Cards in id order, {@code limit} at most, starting with the first id greater than
+     * {@code afterId}. Costs the same for the last page as for the first.
+     */
+    public List<TradingCard> after(long afterId, int limit) {
+        int lo = 0;
+        int hi = ids.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ids[mid] <= afterId) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return slice(lo, limit);
+    }
+
+    /**
+     * Cards for the given ids, in the order asked for. Unknown and repeated ids are skipped. Each
+     * id is a binary search on the id column, which is already sorted.
+     */
+    public List<TradingCard> byIds(List<Long> wanted) {
+        List<TradingCard> found = new ArrayList<>(wanted.size());
+        Set<Long> seen = new HashSet<>();
+        for (Long id : wanted) {
+            if (id == null || !seen.add(id)) {
+                continue;
+            }
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos >= 0) {
+                found.add(card(pos));
+            }
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    public List<TradingCard> filter(BigDecimal minPrice, BigDecimal maxPrice, String specialty,
+                                    CardSort sort, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        Postings postings = specialty == null ? all : bySpecialty.get(specialtyKey(specialty));
+        if (postings == null) {
+            return List.of();
+        }
+
+        // rounding the bounds inwards keeps the cents comparison equal to the BigDecimal one
+        long minCents = minPrice == null ? Long.MIN_VALUE : toCents(minPrice, RoundingMode.CEILING);
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice, RoundingMode.FLOOR);
+        int lo = postings.lowerBound(minCents);
+        int hi = postings.upperBound(maxCents);
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        if (sort == CardSort.PRICE) {
+            return materialize(postings.byPrice, lo + (long) offset, hi, limit);
+        }
+        if (lo == 0 && hi == postings.size()) {
+            return materialize(postings.byName, offset, postings.size(), limit);
+        }
+        return nameOrderedRange(postings, lo, hi, minCents, maxCents, offset, limit);
+    }
+
+    /**
+     * Cards whose name or contribution contains {@code query}, ignoring case, best match first.
+     */
+    public List<TradingCard> search(String query, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        int[] hits = searchIndex.search(query);
+        return materialize(hits, offset, hits.length, limit);
+    }
+
+    /**
+     * Name order for a price-restricted range. A narrow range is cheaper to re-sort by name rank
+     * than to walk the whole name postings list, a wide one is the other way round.
+     */
+    private List<TradingCard> nameOrderedRange(Postings postings, int lo, int hi,
+                                               long minCents, long maxCents,
+                                               int offset, int limit) {
+        int count = hi - lo;
+        if ((long) count * log2(count) < postings.size()) {
+            int[] ranks = new int[count];
+            for (int i = 0; i < count; i++) {
+                ranks[i] = nameRank[postings.byPrice[lo + i]];
+            }
+            Arrays.sort(ranks);
+            List<TradingCard> page = new ArrayList<>(Math.min(limit, count));
+            for (int i = offset; i < count && page.size() < limit; i++) {
+                page.add(card(all.byName[ranks[i]]));
+            }
+            return Collections.unmodifiableList(page);
+        }
+
+        List<TradingCard> page = new ArrayList<>(Math.min(limit, count));
+        int skipped = 0;
+        for (int pos : postings.byName) {
+            long cents = priceCents[pos];
+            if (cents < minCents || cents > maxCents) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            page.add(card(pos));
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return Collections.unmodifiableList(page);
+    }
+
+    private List<TradingCard> materialize(int[] positions, long from, int to, int limit) {
+        if (from >= to) {
+            return List.of();
+        }
+        int end = (int) Math.min(from + limit, to);
+        TradingCard[] page = new TradingCard[end - (int) from];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = card(positions[(int) from + i]);
+        }
+        return List.of(page);
+    }
+
+    private TradingCard card(int pos) {
+        return new TradingCard(ids[pos], names[pos], specialties[specialtyOrdinals[pos]],
+                contributions[pos], BigDecimal.valueOf(priceCents[pos], 2), imageUrls[pos]);
+    }
+
+    private static int[] sortedPositions(int n, Comparator<Integer> order) {
+        List<Integer> positions = new ArrayList<>(IntStream.range(0, n).boxed().toList());
+        positions.sort(order);
+        return toArray(positions);
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int log2(int n) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(MAX_CENTS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_CENTS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    static String specialtyKey(String specialty) {
+        return specialty == null ? "" : specialty.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One postings list in both orders, plus the cents column in price order for range lookups.
+     */
+    private static final class Postings {
+        private final int[] byName;
+        private final int[] byPrice;
+        private final long[] sortedCents;
+
+        private Postings(int[] byName, int[] byPrice, long[] priceCents) {
+            this.byName = byName;
+            this.byPrice = byPrice;
+            this.sortedCents = new long[byPrice.length];
+            for (int i = 0; i < byPrice.length; i++) {
+                sortedCents[i] = priceCents[byPrice[i]];
+            }
+        }
+
+        int size() {
+            return byPrice.length;
+        }
+
+        // first index whose price is >= min
+        int lowerBound(long minCents) {
+            int lo = 0;
+            int hi = sortedCents.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sortedCents[mid] < minCents) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // first index whose price is > max
+        int upperBound(long maxCents) {
+            int lo = 0;
+            int hi = sortedCents.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sortedCents[mid] <= maxCents) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
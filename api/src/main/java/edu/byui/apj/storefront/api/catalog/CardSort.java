@@ -0,0 +1,11 @@
+package edu.byui.apj.storefront.api.catalog;
+
+public enum CardSort {
+    NAME,
+    PRICE;
+
+    // Anything other than "price" falls back to name order, same as the old comparator lookup
+    public static CardSort from(String sort) {
+        return "price".equalsIgnoreCase(sort) ? PRICE : NAME;
+    }
+}
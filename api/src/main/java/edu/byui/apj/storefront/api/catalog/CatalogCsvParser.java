@@ -0,0 +1,216 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Byte-level RFC 4180 reader for the pioneers.csv layout.
+ * <p>
+ * The buffer is cut into chunks on record boundaries (a newline outside quotes), and each chunk
+ * can then be parsed on its own thread. Card ids are the 1-based record number, malformed records
+ * included, which is what the old commons-csv loop handed out.
+ */
+final class CatalogCsvParser {
+
+    static final String[] COLUMNS = {"Name", "Specialty", "Contribution", "Price", "ImageUrl"};
+
+    private final int[] columnIndex = new int[COLUMNS.length];
+    private final int maxColumn;
+    private final int dataStart;
+
+    CatalogCsvParser(ByteBuffer buffer) throws IOException {
+        byte[] head = new byte[Math.min(buffer.limit(), 64 * 1024)];
+        buffer.get(0, head);
+        RecordReader reader = new RecordReader(head, 0, head.length);
+        List<String> header = new ArrayList<>();
+        if (!reader.next(header)) {
+            throw new IOException("Catalog file is empty");
+        }
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndex[i] = header.indexOf(COLUMNS[i]);
+            if (columnIndex[i] < 0) {
+                throw new IOException("Catalog header is missing column " + COLUMNS[i] + ": " + header);
+            }
+        }
+        this.maxColumn = Arrays.stream(columnIndex).max().orElse(0);
+        this.dataStart = reader.position();
+    }
+
+    /**
+     * Splits everything after the header into [from, to) byte ranges of roughly
+     * {@code targetBytes} each, always ending on a record boundary.
+     */
+    List<int[]> split(ByteBuffer buffer, int targetBytes) {
+        List<int[]> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        int chunkStart = dataStart;
+        int next = chunkStart + targetBytes;
+        boolean quoted = false;
+        for (int i = dataStart; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted && i + 1 >= next) {
+                chunks.add(new int[]{chunkStart, i + 1});
+                chunkStart = i + 1;
+                next = chunkStart + targetBytes;
+            }
+        }
+        if (chunkStart < limit) {
+            chunks.add(new int[]{chunkStart, limit});
+        }
+        return chunks;
+    }
+
+    Chunk parse(ByteBuffer buffer, int from, int to) {
+        byte[] data = new byte[to - from];
+        buffer.get(from, data);
+
+        Chunk chunk = new Chunk();
+        RecordReader reader = new RecordReader(data, 0, data.length);
+        List<String> fields = new ArrayList<>();
+        while (reader.next(fields)) {
+            int record = chunk.records++;
+            if (reader.malformed || fields.size() <= maxColumn) {
+                chunk.malformedRows++;
+                continue;
+            }
+            String priceText = fields.get(columnIndex[3]);
+            BigDecimal price = parsePrice(priceText);
+            if (price == null) {
+                chunk.defaultedPrices++;
+                price = BigDecimal.ZERO;
+            }
+            chunk.cards.add(new TradingCard((long) record + 1,
+                    fields.get(columnIndex[0]),
+                    fields.get(columnIndex[1]),
+                    fields.get(columnIndex[2]),
+                    price,
+                    fields.get(columnIndex[4])));
+        }
+        return chunk;
+    }
+
+    /**
+     * Keeps digits and dots, like the old {@code replaceAll("[^0-9.]", "")}, without the regex.
+     * Returns null when what is left is not a number.
+     */
+    static BigDecimal parsePrice(String text) {
+        char[] digits = new char[text.length()];
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                digits[n++] = c;
+            }
+        }
+        try {
+            return new BigDecimal(digits, 0, n);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static final class Chunk {
+        final List<TradingCard> cards = new ArrayList<>();
+        int records;
+        int malformedRows;
+        int defaultedPrices;
+    }
+
+    private static final class RecordReader {
+        private final byte[] data;
+        private final int end;
+        private int pos;
+        private byte[] scratch = new byte[256];
+        boolean malformed;
+
+        RecordReader(byte[] data, int from, int to) {
+            this.data = data;
+            this.pos = from;
+            this.end = to;
+        }
+
+        int position() {
+            return Math.min(pos, end);
+        }
+
+        boolean next(List<String> fields) {
+            fields.clear();
+            malformed = false;
+            skipBlankLines();
+            if (pos >= end) {
+                return false;
+            }
+            while (true) {
+                fields.add(data[pos] == '"' ? quotedField() : plainField());
+                if (pos >= end) {
+                    return true;
+                }
+                byte delimiter = data[pos];
+                if (delimiter == ',') {
+                    pos++;
+                    if (pos >= end) {
+                        fields.add("");
+                        return true;
+                    }
+                    continue;
+                }
+                if (delimiter != '\r' && delimiter != '\n') {
+                    malformed = true; // text after a closing quote
+                }
+                while (pos < end && data[pos] != '\n') {
+                    pos++;
+                }
+                pos++;
+                return true;
+            }
+        }
+
+        private void skipBlankLines() {
+            while (pos < end && (data[pos] == '\n' || data[pos] == '\r')) {
+                pos++;
+            }
+        }
+
+        private String plainField() {
+            int start = pos;
+            while (pos < end && data[pos] != ',' && data[pos] != '\n' && data[pos] != '\r') {
+                pos++;
+            }
+            return new String(data, start, pos - start, StandardCharsets.UTF_8);
+        }
+
+        private String quotedField() {
+            int length = 0;
+            pos++;
+            boolean closed = false;
+            while (pos < end) {
+                byte b = data[pos++];
+                if (b == '"') {
+                    if (pos < end && data[pos] == '"') {
+                        pos++;
+                    } else {
+                        closed = true;
+                        break;
+                    }
+                }
+                if (length == scratch.length) {
+                    scratch = Arrays.copyOf(scratch, length * 2);
+                }
+                scratch[length++] = b;
+            }
+            if (!closed) {
+                malformed = true;
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
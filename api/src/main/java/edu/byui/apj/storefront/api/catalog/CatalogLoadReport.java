@@ -0,0 +1,9 @@
+package edu.byui.apj.storefront.api.catalog;
+
+public record CatalogLoadReport(String source,
+                                int rows,
+                                int malformedRows,
+                                int defaultedPrices,
+                                long elapsedMillis,
+                                double rowsPerSecond) {
+}
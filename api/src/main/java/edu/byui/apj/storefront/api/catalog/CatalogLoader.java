@@ -0,0 +1,125 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads the card catalog, either from the file named by {@code catalog.file} (memory-mapped) or
+ * from the bundled pioneers.csv, and parses it in parallel chunks.
+ * <p>
+ * Loading only produces a new card list; swapping it in is up to the caller, so reads keep being
+ * served from the old catalog while a reload runs.
+ */
+@Slf4j
+@Component
+public class CatalogLoader {
+
+    private static final String CLASSPATH_CATALOG = "pioneers.csv";
+    private static final int MIN_CHUNK_BYTES = 1024 * 1024;
+
+    private final String catalogFile;
+    private final Counter rowsLoaded;
+    private final Counter malformedRows;
+    private final Counter defaultedPrices;
+    private final Timer loadTimer;
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+
+    public CatalogLoader(@Value("${catalog.file:}") String catalogFile, MeterRegistry meterRegistry) {
+        this.catalogFile = catalogFile;
+        this.rowsLoaded = Counter.builder("catalog.load.rows")
+                .description("Catalog rows loaded into a card")
+                .register(meterRegistry);
+        this.malformedRows = Counter.builder("catalog.load.malformed.rows")
+                .description("Catalog rows skipped because they could not be parsed")
+                .register(meterRegistry);
+        this.defaultedPrices = Counter.builder("catalog.load.defaulted.prices")
+                .description("Catalog rows whose price could not be parsed and was set to 0")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("catalog.load.duration")
+                .description("Time to read and parse the catalog file")
+                .register(meterRegistry);
+        meterRegistry.gauge("catalog.load.throughput", lastRowsPerSecond);
+    }
+
+    public Optional<Path> catalogFile() {
+        return catalogFile.isBlank() ? Optional.empty() : Optional.of(Path.of(catalogFile));
+    }
+
+    public LoadedCatalog load() throws IOException {
+        long start = System.nanoTime();
+        Optional<Path> file = catalogFile();
+        ByteBuffer buffer = file.isPresent() ? map(file.get()) : readClasspathCatalog();
+
+        CatalogCsvParser parser = new CatalogCsvParser(buffer);
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, buffer.limit() / (Runtime.getRuntime().availableProcessors() * 4));
+        List<CatalogCsvParser.Chunk> chunks = parser.split(buffer, chunkBytes).parallelStream()
+                .map(range -> parser.parse(buffer, range[0], range[1]))
+                .toList();
+
+        // ids are record numbers, so each chunk is shifted by the records in the chunks before it
+        List<TradingCard> cards = new ArrayList<>(chunks.stream().mapToInt(chunk -> chunk.cards.size()).sum());
+        long recordsBefore = 0;
+        int malformed = 0;
+        int defaulted = 0;
+        for (CatalogCsvParser.Chunk chunk : chunks) {
+            for (TradingCard card : chunk.cards) {
+                card.setId(card.getId() + recordsBefore);
+                cards.add(card);
+            }
+            recordsBefore += chunk.records;
+            malformed += chunk.malformedRows;
+            defaulted += chunk.defaultedPrices;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = cards.size() / Math.max(elapsedNanos / 1e9, 1e-9);
+        loadTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowsLoaded.increment(cards.size());
+        malformedRows.increment(malformed);
+        defaultedPrices.increment(defaulted);
+        lastRowsPerSecond.set(Math.round(rowsPerSecond));
+
+        CatalogLoadReport report = new CatalogLoadReport(file.map(Path::toString).orElse("classpath:" + CLASSPATH_CATALOG),
+                cards.size(), malformed, defaulted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond);
+        log.info("Loaded catalog: {}", report);
+        return new LoadedCatalog(cards, report);
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog file " + path + " is larger than 2 GB");
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private ByteBuffer readClasspathCatalog() throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(CLASSPATH_CATALOG)) {
+            if (is == null) {
+                throw new FileNotFoundException("classpath:" + CLASSPATH_CATALOG);
+            }
+            return ByteBuffer.wrap(is.readAllBytes());
+        }
+    }
+}
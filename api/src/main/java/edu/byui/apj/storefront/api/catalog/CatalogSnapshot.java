@@ -0,0 +1,14 @@
+package edu.byui.apj.storefront.api.catalog;
+
+/**
+ * One published version of the catalog. Snapshots are never modified after publication; a writer
+ * builds the next one and swaps it in.
+ */
+public record CatalogSnapshot(long version, CardCatalog catalog) {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, CardCatalog.empty());
+
+    public CatalogSnapshot next(CardCatalog catalog) {
+        return new CatalogSnapshot(version + 1, catalog);
+    }
+}
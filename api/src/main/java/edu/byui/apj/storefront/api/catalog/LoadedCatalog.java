@@ -0,0 +1,8 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+
+import java.util.List;
+
+public record LoadedCatalog(List<TradingCard> cards, CatalogLoadReport report) {
+}
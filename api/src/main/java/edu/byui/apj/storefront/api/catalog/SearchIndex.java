@@ -0,0 +1,183 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over card names and contributions.
+ * <p>
+ * Text is lowercased and split into letter/digit tokens once, when the catalog is built. Each
+ * token contributes its trigrams to a postings list, so any query token of three or more
+ * characters narrows the candidates to the intersection of its trigram postings, prefixes and
+ * infixes included. Candidates are then checked against the pre-lowercased fields to keep the
+ * old substring semantics exactly, and ranked.
+ */
+final class SearchIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final String[] names;
+    private final String[] contributions;
+    private final Map<Long, int[]> postings;
+
+    SearchIndex(String[] cardNames, String[] cardContributions) {
+        this.names = new String[cardNames.length];
+        this.contributions = new String[cardNames.length];
+
+        Map<Long, int[]> building = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int pos = 0; pos < cardNames.length; pos++) {
+            names[pos] = lower(cardNames[pos]);
+            contributions[pos] = lower(cardContributions[pos]);
+            addTrigrams(names[pos], pos, building, sizes);
+            addTrigrams(contributions[pos], pos, building, sizes);
+        }
+        building.replaceAll((key, positions) -> Arrays.copyOf(positions, sizes.get(key)));
+        this.postings = building;
+    }
+
+    /**
+     * Positions of matching cards, best match first.
+     */
+    int[] search(String query) {
+        String needle = lower(query);
+        int[] candidates = candidates(needle);
+        if (candidates.length == 0) {
+            return NO_POSITIONS;
+        }
+
+        // score in the high bits, inverted position in the low bits: one primitive sort gives
+        // best score first and id order among equal scores
+        long[] ranked = new long[candidates.length];
+        int hits = 0;
+        for (int pos : candidates) {
+            int score = score(pos, needle);
+            if (score > 0) {
+                ranked[hits++] = ((long) score << 32) | (Integer.MAX_VALUE - pos);
+            }
+        }
+        Arrays.sort(ranked, 0, hits);
+
+        int[] result = new int[hits];
+        for (int i = 0; i < hits; i++) {
+            result[i] = Integer.MAX_VALUE - (int) ranked[hits - 1 - i];
+        }
+        return result;
+    }
+
+    private int[] candidates(String needle) {
+        int[] candidates = null;
+        int start = -1;
+        for (int i = 0; i <= needle.length(); i++) {
+            boolean tokenChar = i < needle.length() && Character.isLetterOrDigit(needle.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                for (int j = start; j + 3 <= i; j++) {
+                    int[] list = postings.getOrDefault(trigram(needle, j), NO_POSITIONS);
+                    candidates = candidates == null ? list : intersect(candidates, list);
+                    if (candidates.length == 0) {
+                        return NO_POSITIONS;
+                    }
+                }
+                start = -1;
+            }
+        }
+        if (candidates != null) {
+            return candidates;
+        }
+        // no token long enough to use the index, every card is a candidate
+        int[] all = new int[names.length];
+        Arrays.setAll(all, pos -> pos);
+        return all;
+    }
+
+    /**
+     * Zero means no match. A name hit outranks any contribution hit, a hit at the start of a
+     * word outranks one in the middle of it, and an exact name match beats everything.
+     */
+    private int score(int pos, String needle) {
+        int score = 0;
+        int nameAt = names[pos].indexOf(needle);
+        if (nameAt >= 0) {
+            score += 1000;
+            if (names[pos].length() == needle.length()) {
+                score += 500;
+            } else if (wordStart(names[pos], nameAt)) {
+                score += 200;
+            }
+        }
+        int contributionAt = contributions[pos].indexOf(needle);
+        if (contributionAt >= 0) {
+            score += 100;
+            if (wordStart(contributions[pos], contributionAt)) {
+                score += 50;
+            }
+        }
+        return score;
+    }
+
+    private static boolean wordStart(String text, int at) {
+        return at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1));
+    }
+
+    private static void addTrigrams(String text, int pos, Map<Long, int[]> building, Map<Long, Integer> sizes) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                for (int j = start; j + 3 <= i; j++) {
+                    append(trigram(text, j), pos, building, sizes);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static void append(long key, int pos, Map<Long, int[]> building, Map<Long, Integer> sizes) {
+        int[] positions = building.get(key);
+        int size = sizes.getOrDefault(key, 0);
+        if (positions == null) {
+            positions = new int[4];
+            building.put(key, positions);
+        } else if (positions[size - 1] == pos) {
+            return; // positions arrive in ascending order, so a repeat can only be the last one
+        } else if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            building.put(key, positions);
+        }
+        positions[size] = pos;
+        sizes.put(key, size + 1);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
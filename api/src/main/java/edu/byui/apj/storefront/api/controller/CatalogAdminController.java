@@ -0,0 +1,47 @@
+package edu.byui.apj.storefront.api.controller;
+
+import edu.byui.apj.storefront.api.catalog.CatalogLoadReport;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import edu.byui.apj.storefront.api.service.TradingCardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+public class CatalogAdminController {
+    private final TradingCardService tradingCardService;
+
+    public CatalogAdminController(TradingCardService tradingCardService) {
+        this.tradingCardService = tradingCardService;
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<CatalogLoadReport> reloadCatalog() throws IOException {
+        return ResponseEntity.ok(tradingCardService.reloadCatalog());
+    }
+
+    @PutMapping("/cards/{id}")
+    public ResponseEntity<TradingCard> saveCard(@PathVariable Long id, @RequestBody TradingCard card) {
+        if (card.getName() == null || card.getPrice() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        card.setId(id);
+        return ResponseEntity.ok(tradingCardService.saveCard(card));
+    }
+
+    @DeleteMapping("/cards/{id}")
+    public ResponseEntity<Void> deleteCard(@PathVariable Long id) {
+        if (tradingCardService.deleteCard(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
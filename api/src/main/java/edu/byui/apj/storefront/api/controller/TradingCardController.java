@@ -1,44 +1,149 @@
 package edu.byui.apj.storefront.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.byui.apj.storefront.api.catalog.CardCatalog;
+import edu.byui.apj.storefront.api.catalog.CatalogSnapshot;
 import edu.byui.apj.storefront.api.model.TradingCard;
+import edu.byui.apj.storefront.api.service.CatalogResponseCache;
+import edu.byui.apj.storefront.api.service.CatalogResponseCache.EncodedResponse;
 import edu.byui.apj.storefront.api.service.TradingCardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/cards")
 public class TradingCardController {
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final int EXPORT_CHUNK = 500;
+    private static final byte[] EVENT_PREFIX = "data:".getBytes(StandardCharsets.UTF_8);
+
     private final TradingCardService tradingCardService;
+    private final CatalogResponseCache responseCache;
+    private final ObjectWriter cardWriter;
 
     @Autowired
-    public TradingCardController(TradingCardService tradingCardService) {
+    public TradingCardController(TradingCardService tradingCardService, CatalogResponseCache responseCache,
+                                 ObjectMapper objectMapper) {
         this.tradingCardService = tradingCardService;
+        this.responseCache = responseCache;
+        this.cardWriter = objectMapper.writerFor(TradingCard.class);
     }
 
     @GetMapping
-    public List<TradingCard> getAllCards(
+    public ResponseEntity<byte[]> getAllCards(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        return tradingCardService.getPaginatedCards(page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        EncodedResponse encoded;
+        try {
+            encoded = responseCache.cardPage(page, size, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(encoded, ifNoneMatch, size);
+    }
+
+    // Many cards in one round trip, in the order asked for; unknown and repeated ids are skipped
+    @PostMapping("/ids")
+    public ResponseEntity<List<TradingCard>> getCardsByIds(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tradingCardService.getCardsByIds(ids));
+    }
+
+    /**
+     * The whole catalog, one card per line as NDJSON, or one event per card when the client asks
+     * for {@code text/event-stream}. Everything comes from the snapshot current when the request
+     * arrived, whose version is sent as {@code X-Catalog-Version}. Cards are built a chunk at a
+     * time and the output is flushed after each chunk; a slow client blocks the write and so holds
+     * back the next chunk, which keeps memory flat however big the catalog is.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportCards(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean events = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        CatalogSnapshot snapshot = tradingCardService.currentSnapshot();
+        CardCatalog catalog = snapshot.catalog();
+        StreamingResponseBody body = out -> {
+            for (int from = 0; from < catalog.size(); from += EXPORT_CHUNK) {
+                for (TradingCard card : catalog.slice(from, EXPORT_CHUNK)) {
+                    if (events) {
+                        out.write(EVENT_PREFIX);
+                    }
+                    out.write(cardWriter.writeValueAsBytes(card));
+                    out.write('\n');
+                    if (events) {
+                        out.write('\n');
+                    }
+                }
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(events ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .header("X-Catalog-Version", String.valueOf(snapshot.version()))
+                .body(body);
     }
 
     @GetMapping("/filter")
-    public List<TradingCard> filterCards(
+    public ResponseEntity<byte[]> filterCards(
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String specialty,
-            @RequestParam(required = false, defaultValue = "name") String sort) {
-        return tradingCardService.filterAndSortCards(minPrice, maxPrice, specialty, sort);
+            @RequestParam(required = false, defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return respond(responseCache.filter(minPrice, maxPrice, specialty, sort, offset, limit), ifNoneMatch, null);
     }
 
     @GetMapping("/search")
-    public List<TradingCard> searchCards(@RequestParam String query) {
-        return tradingCardService.searchCards(query);
+    public ResponseEntity<byte[]> searchCards(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return respond(responseCache.search(query, offset, limit), ifNoneMatch, null);
+    }
+
+    // Cached bytes go out untouched; the Link header is built per request since it carries the host.
+    // The resolved page size is written into it, so the next page has the same size however this one was asked for.
+    private static ResponseEntity<byte[]> respond(EncodedResponse encoded, String ifNoneMatch, Integer pageSize) {
+        boolean notModified = encoded.matches(ifNoneMatch);
+        ResponseEntity.BodyBuilder response = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        response.eTag(encoded.etag());
+        if (encoded.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page")
+                    .replaceQueryParam("size", pageSize)
+                    .replaceQueryParam("cursor", encoded.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        if (notModified) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(encoded.body());
     }
 }
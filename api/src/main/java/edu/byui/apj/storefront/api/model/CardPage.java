@@ -0,0 +1,13 @@
+package edu.byui.apj.storefront.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CardPage {
+    private List<TradingCard> cards;
+    private String nextCursor;
+}
@@ -0,0 +1,99 @@
+package edu.byui.apj.storefront.api.service;
+
+import edu.byui.apj.storefront.api.catalog.CatalogLoader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Reloads the catalog when the file named by {@code catalog.file} changes. Does nothing when the
+ * bundled pioneers.csv is in use or {@code catalog.watch} is off.
+ */
+@Slf4j
+@Component
+public class CatalogFileWatcher {
+
+    // editors and copy tools fire several events per save, wait for them to settle
+    private static final long SETTLE_MILLIS = 500;
+
+    private final CatalogLoader catalogLoader;
+    private final TradingCardService tradingCardService;
+    private final boolean enabled;
+    private WatchService watchService;
+
+    public CatalogFileWatcher(CatalogLoader catalogLoader, TradingCardService tradingCardService,
+                              @Value("${catalog.watch:true}") boolean enabled) {
+        this.catalogLoader = catalogLoader;
+        this.tradingCardService = tradingCardService;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled || catalogLoader.catalogFile().isEmpty()) {
+            return;
+        }
+        Path file = catalogLoader.catalogFile().get().toAbsolutePath();
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread.ofPlatform().daemon().name("catalog-file-watcher").start(() -> watch(file));
+        log.info("Watching {} for catalog changes", file);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch(Path file) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = touches(key, file);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                Thread.sleep(SETTLE_MILLIS);
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                try {
+                    tradingCardService.reloadCatalog();
+                } catch (IOException | RuntimeException e) {
+                    log.error("Catalog reload after change to {} failed, keeping the current catalog", file, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private static boolean touches(WatchKey key, Path file) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && name.equals(file.getFileName())) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
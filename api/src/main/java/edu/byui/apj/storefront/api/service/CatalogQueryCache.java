@@ -0,0 +1,77 @@
+package edu.byui.apj.storefront.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.byui.apj.storefront.api.catalog.CardSort;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Results of recent filter and search queries.
+ * <p>
+ * Keys hold the normalized query plus the snapshot version it ran against, so a result computed
+ * on an old snapshot can never be served for a newer one. The whole cache is also dropped when a
+ * snapshot is published, to free the memory right away. Size is bounded by the number of cards
+ * held across all entries, not by the number of entries, since one unbounded filter result can be
+ * the whole catalog.
+ */
+@Component
+public class CatalogQueryCache {
+
+    private final Cache<QueryKey, List<TradingCard>> cache;
+
+    public CatalogQueryCache(@Value("${catalog.cache.max-cards:100000}") long maxCards,
+                             @Value("${catalog.cache.ttl:10m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxCards)
+                .weigher((QueryKey key, List<TradingCard> cards) -> cards.size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog.query");
+    }
+
+    public List<TradingCard> filter(long version, BigDecimal minPrice, BigDecimal maxPrice, String specialty,
+                                    CardSort sort, int offset, int limit, Supplier<List<TradingCard>> query) {
+        QueryKey key = new QueryKey(version, QueryKind.FILTER, normalize(minPrice), normalize(maxPrice),
+                specialty == null ? null : specialty.toLowerCase(Locale.ROOT), sort, offset, limit);
+        return cache.get(key, k -> query.get());
+    }
+
+    public List<TradingCard> search(long version, String query, int offset, int limit,
+                                    Supplier<List<TradingCard>> search) {
+        QueryKey key = new QueryKey(version, QueryKind.SEARCH, null, null,
+                query.toLowerCase(Locale.ROOT), null, offset, limit);
+        return cache.get(key, k -> search.get());
+    }
+
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    // 10, 10.0 and 10.00 are the same bound but not equal BigDecimals
+    private static BigDecimal normalize(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+
+    private enum QueryKind {
+        FILTER,
+        SEARCH
+    }
+
+    private record QueryKey(long version, QueryKind kind, BigDecimal minPrice, BigDecimal maxPrice,
+                            String text, CardSort sort, int offset, int limit) {
+    }
+}
@@ -0,0 +1,133 @@
+package edu.byui.apj.storefront.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.byui.apj.storefront.api.catalog.CardSort;
+import edu.byui.apj.storefront.api.model.CardPage;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Catalog responses already encoded as UTF-8 JSON, with a strong ETag over the bytes.
+ * <p>
+ * A hit skips both the query and Jackson. Like {@link CatalogQueryCache}, keys carry the snapshot
+ * version and the whole cache is dropped when a new snapshot is published. The bound is the total
+ * size of the cached bodies in bytes. Since the ETag is a hash of the body, a page that did not
+ * change across a reload keeps its ETag and clients holding it still get a 304.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private final TradingCardService tradingCardService;
+    private final ObjectMapper objectMapper;
+    private final Cache<ResponseKey, EncodedResponse> cache;
+
+    public CatalogResponseCache(TradingCardService tradingCardService, ObjectMapper objectMapper,
+                                @Value("${catalog.response-cache.max-bytes:67108864}") long maxBytes,
+                                MeterRegistry meterRegistry) {
+        this.tradingCardService = tradingCardService;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((ResponseKey key, EncodedResponse response) -> response.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog.response");
+    }
+
+    public EncodedResponse cardPage(int page, int size, String cursor) {
+        ResponseKey key = new ResponseKey(version(), ResponseKind.PAGE, null, null, cursor, null, page, size);
+        return cache.get(key, k -> {
+            CardPage cardPage = tradingCardService.getCardPage(page, size, cursor);
+            return encode(cardPage.getCards(), cardPage.getNextCursor());
+        });
+    }
+
+    public EncodedResponse filter(BigDecimal minPrice, BigDecimal maxPrice, String specialty, String sort,
+                                  int offset, int limit) {
+        ResponseKey key = new ResponseKey(version(), ResponseKind.FILTER, normalize(minPrice), normalize(maxPrice),
+                specialty == null ? null : specialty.toLowerCase(Locale.ROOT), CardSort.from(sort), offset, limit);
+        return cache.get(key, k -> encode(
+                tradingCardService.filterAndSortCards(minPrice, maxPrice, specialty, sort, offset, limit)));
+    }
+
+    public EncodedResponse search(String query, int offset, int limit) {
+        ResponseKey key = new ResponseKey(version(), ResponseKind.SEARCH, null, null,
+                query.toLowerCase(Locale.ROOT), null, offset, limit);
+        return cache.get(key, k -> encode(tradingCardService.searchCards(query, offset, limit)));
+    }
+
+    @EventListener
+    public void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    // read before the query runs, so an entry is never filed under a newer version than its data
+    private long version() {
+        return tradingCardService.currentSnapshot().version();
+    }
+
+    private EncodedResponse encode(List<TradingCard> cards) {
+        return encode(cards, null);
+    }
+
+    private EncodedResponse encode(List<TradingCard> cards, String nextCursor) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(cards);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new EncodedResponse(body, etag, nextCursor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BigDecimal normalize(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+
+    /**
+     * A JSON body ready to be written as is, its quoted ETag, and the cursor for the next page
+     * when there is one.
+     */
+    public record EncodedResponse(byte[] body, String etag, String nextCursor) {
+
+        /**
+         * True when an {@code If-None-Match} header value names this response's ETag.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private enum ResponseKind {
+        PAGE,
+        FILTER,
+        SEARCH
+    }
+
+    private record ResponseKey(long version, ResponseKind kind, BigDecimal minPrice, BigDecimal maxPrice,
+                               String text, CardSort sort, int offset, int limit) {
+    }
+}
@@ -0,0 +1,8 @@
+package edu.byui.apj.storefront.api.service;
+
+/**
+ * Published after a new catalog snapshot has been swapped in. Anything derived from an older
+ * version (cached results, rendered responses) is stale from here on.
+ */
+public record CatalogSnapshotChangedEvent(long version, int cards) {
+}
@@ -1,109 +1,160 @@
 package edu.byui.apj.storefront.api.service;
 
+import edu.byui.apj.storefront.api.catalog.CardCatalog;
+import edu.byui.apj.storefront.api.catalog.CardCursor;
+import edu.byui.apj.storefront.api.catalog.CardSort;
+import edu.byui.apj.storefront.api.catalog.CatalogLoadReport;
+import edu.byui.apj.storefront.api.catalog.CatalogLoader;
+import edu.byui.apj.storefront.api.catalog.CatalogSnapshot;
+import edu.byui.apj.storefront.api.catalog.LoadedCatalog;
+import edu.byui.apj.storefront.api.model.CardPage;
 import edu.byui.apj.storefront.api.model.TradingCard;
 import jakarta.annotation.PostConstruct;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the card catalog from immutable, versioned snapshots.
+ * <p>
+ * Readers take whatever snapshot the reference points at and never lock. Writers (file reloads,
+ * admin edits) are serialized, build the next snapshot from scratch and publish it with a single
+ * reference swap, so a request always sees one consistent version from start to finish. Filter
+ * and search results are cached per snapshot version in a {@link CatalogQueryCache}.
+ */
+@Slf4j
 @Service
 public class TradingCardService {
 
-    private final List<TradingCard> tradingCards = new ArrayList<>();
+    private final CatalogLoader catalogLoader;
+    private final CatalogQueryCache queryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.EMPTY);
+
+    public TradingCardService(CatalogLoader catalogLoader, CatalogQueryCache queryCache,
+                              ApplicationEventPublisher eventPublisher) {
+        this.catalogLoader = catalogLoader;
+        this.queryCache = queryCache;
+        this.eventPublisher = eventPublisher;
+    }
 
     @PostConstruct
     public void init() {
-        loadCardsFromCSV();
+        try {
+            reloadCatalog();
+        } catch (IOException e) {
+            log.error("Error loading catalog, starting with an empty one", e);
+        }
     }
 
-    private void loadCardsFromCSV() {
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("pioneers.csv");
-             InputStreamReader reader = new InputStreamReader(is);
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-
-            long id = 1L;
-            for (CSVRecord record : csvParser) {
-                try {
-                    TradingCard card = createTradingCardFromRecord(record, id++);
-                    tradingCards.add(card);
-                } catch (Exception e) {
-                    System.err.println("Error processing record: " + record);
-                    e.printStackTrace();
-                }
-            }
+    public CatalogSnapshot currentSnapshot() {
+        return snapshot.get();
+    }
 
-            System.out.println("Successfully loaded " + tradingCards.size() + " trading cards from CSV");
-            System.out.println("Sample card: " + tradingCards.get(0)); // Log the first card for verification
+    /**
+     * Loads and indexes a fresh catalog next to the current one, then swaps it in. Requests keep
+     * reading the old snapshot until the swap.
+     */
+    public synchronized CatalogLoadReport reloadCatalog() throws IOException {
+        LoadedCatalog loaded = catalogLoader.load();
+        publish(CardCatalog.of(loaded.cards()));
+        return loaded.report();
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error loading CSV file:");
-            e.printStackTrace();
+    /**
+     * Replaces the card with the same id, or adds it when the id is new.
+     */
+    public synchronized TradingCard saveCard(TradingCard card) {
+        TradingCard copy = new TradingCard(card.getId(), card.getName(), card.getSpecialty(),
+                card.getContribution(), card.getPrice(), card.getImageUrl());
+        List<TradingCard> cards = new ArrayList<>(snapshot.get().catalog().cards());
+        int index = indexOf(cards, copy.getId());
+        if (index >= 0) {
+            cards.set(index, copy);
+        } else {
+            cards.add(copy);
         }
+        publish(CardCatalog.of(cards));
+        return copy;
     }
 
-    private TradingCard createTradingCardFromRecord(CSVRecord record, long id) {
-        String name = record.get("Name");
-        String specialty = record.get("Specialty");
-        String contribution = record.get("Contribution");
-        String priceStr = record.get("Price");
-        String imageUrl = record.get("ImageUrl");
+    public synchronized boolean deleteCard(long id) {
+        List<TradingCard> cards = new ArrayList<>(snapshot.get().catalog().cards());
+        int index = indexOf(cards, id);
+        if (index < 0) {
+            return false;
+        }
+        cards.remove(index);
+        publish(CardCatalog.of(cards));
+        return true;
+    }
 
-        BigDecimal price = parsePrice(priceStr);
-        return new TradingCard(id, name, specialty, contribution, price, imageUrl);
+    private void publish(CardCatalog catalog) {
+        CatalogSnapshot published = snapshot.updateAndGet(current -> current.next(catalog));
+        log.info("Published catalog version {} with {} cards", published.version(), catalog.size());
+        eventPublisher.publishEvent(new CatalogSnapshotChangedEvent(published.version(), catalog.size()));
     }
 
-    private BigDecimal parsePrice(String priceStr) {
-        try {
-            return new BigDecimal(priceStr.replaceAll("[^0-9.]", ""));
-        } catch (NumberFormatException e) {
-            System.err.println("Error parsing price: " + priceStr + ", using default value 0");
-            return BigDecimal.ZERO;
+    private static int indexOf(List<TradingCard> cards, Long id) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (Objects.equals(cards.get(i).getId(), id)) {
+                return i;
+            }
         }
+        return -1;
     }
 
     public List<TradingCard> getPaginatedCards(int page, int size) {
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, tradingCards.size());
+        return snapshot.get().catalog().slice((long) page * size, size);
+    }
 
-        if (fromIndex >= tradingCards.size()) {
-            return new ArrayList<>();
+    /**
+     * One page of cards in id order plus the cursor for the page after it. With a cursor the page
+     * is found by id, so deep pages cost the same as the first; without one, {@code page} is used
+     * as an offset.
+     */
+    public CardPage getCardPage(int page, int size, String cursor) {
+        if (size <= 0) {
+            return new CardPage(List.of(), null);
+        }
+        CardCatalog catalog = snapshot.get().catalog();
+        // one extra card tells whether there is a next page without a second lookup
+        List<TradingCard> cards = cursor == null
+                ? catalog.slice((long) page * size, size + 1)
+                : catalog.after(CardCursor.decode(cursor), size + 1);
+        if (cards.size() <= size) {
+            return new CardPage(cards, null);
         }
+        List<TradingCard> pageCards = cards.subList(0, size);
+        return new CardPage(pageCards, CardCursor.encode(pageCards.get(size - 1).getId()));
+    }
 
-        return tradingCards.subList(fromIndex, toIndex);
+    public List<TradingCard> getCardsByIds(List<Long> ids) {
+        return snapshot.get().catalog().byIds(ids);
     }
 
     public List<TradingCard> filterAndSortCards(BigDecimal minPrice, BigDecimal maxPrice, String specialty, String sort) {
-        return tradingCards.stream()
-                .filter(card -> minPrice == null || card.getPrice().compareTo(minPrice) >= 0)
-                .filter(card -> maxPrice == null || card.getPrice().compareTo(maxPrice) <= 0)
-                .filter(card -> specialty == null || card.getSpecialty().equalsIgnoreCase(specialty))
-                .sorted(getSortComparator(sort))
-                .collect(Collectors.toList());
+        return filterAndSortCards(minPrice, maxPrice, specialty, sort, 0, Integer.MAX_VALUE);
     }
 
-    private Comparator<TradingCard> getSortComparator(String sort) {
-        if ("price".equalsIgnoreCase(sort)) {
-            return Comparator.comparing(TradingCard::getPrice);
-        }
-        return Comparator.comparing(TradingCard::getName);
+    public List<TradingCard> filterAndSortCards(BigDecimal minPrice, BigDecimal maxPrice, String specialty, String sort,
+                                                int offset, int limit) {
+        CatalogSnapshot current = snapshot.get();
+        CardSort cardSort = CardSort.from(sort);
+        return queryCache.filter(current.version(), minPrice, maxPrice, specialty, cardSort, offset, limit,
+                () -> current.catalog().filter(minPrice, maxPrice, specialty, cardSort, offset, limit));
     }
 
-    public List<TradingCard> searchCards(String query) {
-        String lowercaseQuery = query.toLowerCase();
-        return tradingCards.stream()
-                .filter(card ->
-                        card.getName().toLowerCase().contains(lowercaseQuery) ||
-                                card.getContribution().toLowerCase().contains(lowercaseQuery))
-                .collect(Collectors.toList());
+    public List<TradingCard> searchCards(String query, int offset, int limit) {
+        CatalogSnapshot current = snapshot.get();
+        return queryCache.search(current.version(), query, offset, limit,
+                () -> current.catalog().search(query, offset, limit));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,21 @@
 package edu.byui.apj.storefront.api;
 
+import edu.byui.apj.storefront.api.service.TradingCardService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -17,6 +25,9 @@ class ApiApplicationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TradingCardService tradingCardService;
+
     @Test
     void contextLoads() {
     }
@@ -28,6 +39,55 @@ class ApiApplicationTests {
                 .andExpect(jsonPath("$", not(empty())));
     }
 
+    @Test
+    public void testCursorPagingMatchesOffsetPaging() throws Exception {
+        String link = mockMvc.perform(get("/api/cards").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(10)))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")))
+                .andReturn().getResponse().getHeader("Link");
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        String secondPage = mockMvc.perform(get("/api/cards").param("page", "1").param("size", "10"))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get(URI.create(next)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(secondPage, true));
+    }
+
+    @Test
+    public void testCachedPageIsRevalidatedWithEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/cards").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/cards").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/cards").param("size", "6").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)));
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/cards").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetCardsByIds() throws Exception {
+        mockMvc.perform(post("/api/cards/ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[3, 1, 999999, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+    }
+
     @Test
     public void testFilterCards() throws Exception {
         mockMvc.perform(get("/api/cards/filter")
@@ -43,4 +103,41 @@ class ApiApplicationTests {
                         .param("query", "computer"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void testSearchCardsRespectsLimit() throws Exception {
+        mockMvc.perform(get("/api/cards/search")
+                        .param("query", "computer")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+
+    @Test
+    public void testExportStreamsEveryCardAsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/cards/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().exists("X-Catalog-Version"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines)
+                .hasSize(tradingCardService.currentSnapshot().catalog().size())
+                .allMatch(line -> line.startsWith("{") && line.contains("\"id\":"));
+    }
+
+    @Test
+    public void testExportStreamsServerSentEvents() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/cards/export").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(startsWith("data:{")));
+    }
 }
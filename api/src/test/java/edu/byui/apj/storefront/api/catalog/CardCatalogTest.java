@@ -0,0 +1,109 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardCatalogTest {
+
+    private static final String[] SPECIALTIES = {"Networking_Internet", "Programming Languages", "Cybersecurity"};
+
+    private List<TradingCard> cards;
+    private CardCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        cards = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            cards.add(new TradingCard(id, "Pioneer " + random.nextInt(200),
+                    SPECIALTIES[random.nextInt(SPECIALTIES.length)], "Contribution " + id,
+                    BigDecimal.valueOf(random.nextInt(20000), 2), "https://placecats.com/200/280"));
+        }
+        catalog = CardCatalog.of(cards);
+    }
+
+    @Test
+    void filter_shouldMatchStreamFilterAndSort() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            BigDecimal min = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(20000), 2);
+            BigDecimal max = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(20000), 2);
+            String specialty = random.nextBoolean() ? null : SPECIALTIES[random.nextInt(SPECIALTIES.length)].toUpperCase();
+            String sort = random.nextBoolean() ? "price" : "name";
+
+            assertThat(catalog.filter(min, max, specialty, CardSort.from(sort), 0, Integer.MAX_VALUE))
+                    .containsExactlyElementsOf(streamFilter(min, max, specialty, sort));
+        }
+    }
+
+    @Test
+    void filter_shouldReturnBoundedSlice() {
+        List<TradingCard> expected = streamFilter(new BigDecimal("10"), new BigDecimal("150"), null, "name");
+
+        List<TradingCard> page = catalog.filter(new BigDecimal("10"), new BigDecimal("150"), null, CardSort.NAME, 5, 10);
+
+        assertThat(page).containsExactlyElementsOf(expected.subList(5, 15));
+    }
+
+    @Test
+    void filter_shouldReturnEmptyForUnknownSpecialty() {
+        assertThat(catalog.filter(null, null, "Quantum", CardSort.NAME, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void filter_shouldTreatSubCentBoundsLikeDecimalComparison() {
+        CardCatalog priced = CardCatalog.of(List.of(
+                new TradingCard(1L, "Low", "Cybersecurity", "c", new BigDecimal("10.00"), "img"),
+                new TradingCard(2L, "Mid", "Cybersecurity", "c", new BigDecimal("10.01"), "img"),
+                new TradingCard(3L, "High", "Cybersecurity", "c", new BigDecimal("10.02"), "img")));
+
+        assertThat(priced.filter(new BigDecimal("10.005"), new BigDecimal("10.015"), null, CardSort.PRICE, 0, 10))
+                .extracting(TradingCard::getId).containsExactly(2L);
+        assertThat(priced.filter(new BigDecimal("10"), null, null, CardSort.PRICE, 0, 10))
+                .extracting(TradingCard::getPrice).containsExactly(
+                        new BigDecimal("10.00"), new BigDecimal("10.01"), new BigDecimal("10.02"));
+    }
+
+    @Test
+    void search_shouldMatchCaseInsensitiveSubstringsRankedByName() {
+        List<TradingCard> small = List.of(
+                new TradingCard(1L, "Alan Turing", "Algorithms_Theory", "Developed the Turing machine.", BigDecimal.ONE, "img"),
+                new TradingCard(2L, "Ada Lovelace", "Algorithms_Theory", "Wrote notes on Babbage's engine.", BigDecimal.ONE, "img"),
+                new TradingCard(3L, "Barbara Liskov", "Programming Languages", "Gave a talk that cited Alan Turing.", BigDecimal.ONE, "img"));
+        CardCatalog searchable = CardCatalog.of(small);
+
+        assertThat(searchable.search("TURING", 0, 10)).extracting(TradingCard::getId).containsExactly(1L, 3L);
+        assertThat(searchable.search("uring mach", 0, 10)).extracting(TradingCard::getId).containsExactly(1L);
+        assertThat(searchable.search("a", 0, 10)).hasSize(3);
+        assertThat(searchable.search("a", 1, 1)).hasSize(1);
+        assertThat(searchable.search("quantum", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void slice_shouldReturnLoadOrderPage() {
+        assertThat(catalog.slice(20, 20)).containsExactlyElementsOf(cards.subList(20, 40));
+        assertThat(catalog.slice(cards.size(), 20)).isEmpty();
+    }
+
+    private List<TradingCard> streamFilter(BigDecimal min, BigDecimal max, String specialty, String sort) {
+        Comparator<TradingCard> comparator = "price".equals(sort)
+                ? Comparator.comparing(TradingCard::getPrice)
+                : Comparator.comparing(TradingCard::getName);
+        return cards.stream()
+                .filter(card -> min == null || card.getPrice().compareTo(min) >= 0)
+                .filter(card -> max == null || card.getPrice().compareTo(max) <= 0)
+                .filter(card -> specialty == null || card.getSpecialty().equalsIgnoreCase(specialty))
+                .sorted(comparator)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package edu.byui.apj.storefront.api.catalog;
+
+import edu.byui.apj.storefront.api.model.TradingCard;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCsvParserTest {
+
+    private static final String CSV = """
+            ID,Name,Specialty,Contribution,Price,ImageUrl
+            1,Alan Turing,Algorithms_Theory,"Turing machine, ""computable"" numbers",$67.99,https://placecats.com/200/280
+            2,Broken Row,Algorithms_Theory
+            3,Grace Hopper,Programming Languages,"First compiler
+            and COBOL",not a price,https://placecats.com/200/280
+
+            4,Ken Thompson,Operating Systems,Unix,11.99,https://placecats.com/200/280
+            """;
+
+    @Test
+    void parse_shouldGiveSameCardsForAnyChunkSize() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(CSV.getBytes(StandardCharsets.UTF_8));
+        CatalogCsvParser parser = new CatalogCsvParser(buffer);
+
+        for (int chunkBytes : new int[]{1, 16, 64, 1024}) {
+            List<TradingCard> cards = new ArrayList<>();
+            long recordsBefore = 0;
+            int malformed = 0;
+            int defaulted = 0;
+            for (int[] range : parser.split(buffer, chunkBytes)) {
+                CatalogCsvParser.Chunk chunk = parser.parse(buffer, range[0], range[1]);
+                for (TradingCard card : chunk.cards) {
+                    card.setId(card.getId() + recordsBefore);
+                    cards.add(card);
+                }
+                recordsBefore += chunk.records;
+                malformed += chunk.malformedRows;
+                defaulted += chunk.defaultedPrices;
+            }
+
+            assertThat(cards).extracting(TradingCard::getId).containsExactly(1L, 3L, 4L);
+            assertThat(cards.get(0).getContribution()).isEqualTo("Turing machine, \"computable\" numbers");
+            assertThat(cards.get(0).getPrice()).isEqualByComparingTo("67.99");
+            assertThat(cards.get(1).getContribution()).isEqualTo("First compiler\nand COBOL");
+            assertThat(cards.get(1).getPrice()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(malformed).isEqualTo(1);
+            assertThat(defaulted).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void parsePrice_shouldStripCurrencyFormatting() {
+        assertThat(CatalogCsvParser.parsePrice("$1,234.50")).isEqualByComparingTo("1234.50");
+        assertThat(CatalogCsvParser.parsePrice("1.2.3")).isNull();
+        assertThat(CatalogCsvParser.parsePrice("")).isNull();
+    }
+}
@@ -0,0 +1,61 @@
+package edu.byui.apj.storefront.api.service;
+
+import edu.byui.apj.storefront.api.catalog.CardSort;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogQueryCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogQueryCache queryCache;
+    private AtomicInteger queries;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryCache = new CatalogQueryCache(1000, Duration.ofMinutes(10), meterRegistry);
+        queries = new AtomicInteger();
+    }
+
+    @Test
+    void filter_shouldReuseResultForEquivalentParameters() {
+        queryCache.filter(1, new BigDecimal("10"), null, "Cybersecurity", CardSort.PRICE, 0, 20, this::runQuery);
+        queryCache.filter(1, new BigDecimal("10.00"), null, "CYBERSECURITY", CardSort.PRICE, 0, 20, this::runQuery);
+
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "catalog.query").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void filter_shouldMissForDifferentPageOrVersion() {
+        queryCache.filter(1, null, null, null, CardSort.NAME, 0, 20, this::runQuery);
+        queryCache.filter(1, null, null, null, CardSort.NAME, 20, 20, this::runQuery);
+        queryCache.filter(2, null, null, null, CardSort.NAME, 0, 20, this::runQuery);
+
+        assertThat(queries).hasValue(3);
+    }
+
+    @Test
+    void snapshotChange_shouldDropCachedResults() {
+        queryCache.search(1, "turing", 0, 100, this::runQuery);
+        queryCache.onSnapshotChanged(new CatalogSnapshotChangedEvent(1, 0));
+        queryCache.search(1, "Turing", 0, 100, this::runQuery);
+
+        assertThat(queries).hasValue(2);
+    }
+
+    private List<TradingCard> runQuery() {
+        queries.incrementAndGet();
+        return List.of();
+    }
+}
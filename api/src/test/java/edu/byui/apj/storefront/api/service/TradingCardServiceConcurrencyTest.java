@@ -0,0 +1,107 @@
+package edu.byui.apj.storefront.api.service;
+
+import edu.byui.apj.storefront.api.catalog.CatalogLoader;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradingCardServiceConcurrencyTest {
+
+    private static final int READERS = 8;
+    private static final long RUN_MILLIS = 2000;
+
+    private TradingCardService tradingCardService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogQueryCache queryCache = new CatalogQueryCache(100_000, Duration.ofMinutes(10), meterRegistry);
+        tradingCardService = new TradingCardService(new CatalogLoader("", meterRegistry), queryCache,
+                event -> queryCache.onSnapshotChanged((CatalogSnapshotChangedEvent) event));
+        tradingCardService.init();
+    }
+
+    @Test
+    void readsStayConsistentWhileSnapshotsAreSwapped() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(READERS + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        tasks.add(executor.submit(() -> {
+            started.countDown();
+            long id = 100_000;
+            try {
+                while (running.get()) {
+                    tradingCardService.saveCard(new TradingCard(id, "Stress Card " + id, "Programming Languages",
+                            "Added while readers run", new BigDecimal("42.00"), "img"));
+                    tradingCardService.deleteCard(id++);
+                    tradingCardService.reloadCatalog();
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        }));
+
+        for (int r = 0; r < READERS; r++) {
+            tasks.add(executor.submit(() -> {
+                started.countDown();
+                long lastVersion = 0;
+                try {
+                    while (running.get()) {
+                        long version = tradingCardService.currentSnapshot().version();
+                        assertThat(version).isGreaterThanOrEqualTo(lastVersion);
+                        lastVersion = version;
+
+                        List<TradingCard> page = tradingCardService.getPaginatedCards(1, 20);
+                        assertThat(page).hasSize(20).doesNotContainNull();
+
+                        List<TradingCard> byPrice = tradingCardService.filterAndSortCards(
+                                new BigDecimal("10"), new BigDecimal("150"), null, "price");
+                        for (int i = 1; i < byPrice.size(); i++) {
+                            assertThat(byPrice.get(i).getPrice()).isGreaterThanOrEqualTo(byPrice.get(i - 1).getPrice());
+                        }
+
+                        List<TradingCard> byName = tradingCardService.filterAndSortCards(
+                                null, null, "Programming Languages", "name");
+                        for (int i = 1; i < byName.size(); i++) {
+                            assertThat(byName.get(i).getName()).isGreaterThanOrEqualTo(byName.get(i - 1).getName());
+                        }
+
+                        assertThat(tradingCardService.searchCards("computer", 0, 10)).isNotEmpty();
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+
+        started.await();
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(tradingCardService.currentSnapshot().version()).isGreaterThan(1);
+    }
+}
@@ -0,0 +1,55 @@
+package edu.byui.apj.storefront.benchmarks;
+
+import edu.byui.apj.storefront.api.catalog.CatalogLoader;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes catalog files of any size in the pioneers.csv layout. Rows cycle through the bundled
+ * pioneers, with a generation number appended to the name so names stay distinct, and get random
+ * prices between 1.00 and 199.99. The same seed always gives the same file.
+ */
+public final class SyntheticCatalog {
+
+    private static final String HEADER = "ID,Name,Specialty,Contribution,Price,ImageUrl";
+
+    private SyntheticCatalog() {
+    }
+
+    public static Path write(int cards, long seed) throws IOException {
+        List<TradingCard> pioneers = new CatalogLoader("", new SimpleMeterRegistry()).load().cards();
+        Random random = new Random(seed);
+        Path file = Files.createTempFile("catalog-" + cards + "-", ".csv");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (int i = 0; i < cards; i++) {
+                TradingCard pioneer = pioneers.get(i % pioneers.size());
+                String price = BigDecimal.valueOf(100 + random.nextInt(19900), 2).toPlainString();
+                writer.write(String.join(",",
+                        String.valueOf(i + 1),
+                        quote(pioneer.getName() + " " + (i / pioneers.size())),
+                        quote(pioneer.getSpecialty()),
+                        quote(pioneer.getContribution()),
+                        price,
+                        pioneer.getImageUrl()));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
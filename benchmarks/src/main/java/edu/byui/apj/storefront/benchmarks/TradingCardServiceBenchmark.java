@@ -0,0 +1,118 @@
+package edu.byui.apj.storefront.benchmarks;
+
+import edu.byui.apj.storefront.api.catalog.CatalogLoader;
+import edu.byui.apj.storefront.api.model.TradingCard;
+import edu.byui.apj.storefront.api.service.CatalogQueryCache;
+import edu.byui.apj.storefront.api.service.TradingCardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query costs of {@link TradingCardService} over synthetic catalogs.
+ * <p>
+ * {@code cacheMaxCards=0} measures the catalog itself on every call; a non-zero value measures
+ * the result cache in front of it. Build and run from the repository root with
+ * {@code mvn -pl benchmarks -am package -DskipTests} and
+ * {@code java -jar benchmarks/target/benchmarks.jar}; JMH options such as
+ * {@code -p cards=100000} narrow the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TradingCardServiceBenchmark {
+
+    private static final BigDecimal MIN_PRICE = new BigDecimal("20.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("80.00");
+    private static final String SPECIALTY = "Programming Languages";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    private int cards;
+
+    @Param({"0", "100000"})
+    private long cacheMaxCards;
+
+    private Path catalogFile;
+    private TradingCardService tradingCardService;
+    private int deepPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        catalogFile = SyntheticCatalog.write(cards, 42);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CatalogQueryCache queryCache = new CatalogQueryCache(cacheMaxCards, Duration.ofMinutes(10), meterRegistry);
+        tradingCardService = new TradingCardService(new CatalogLoader(catalogFile.toString(), meterRegistry),
+                queryCache, event -> { });
+        tradingCardService.reloadCatalog();
+        deepPage = cards / PAGE_SIZE / 2;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(catalogFile);
+    }
+
+    @Benchmark
+    public List<TradingCard> paginatedFirstPage() {
+        return tradingCardService.getPaginatedCards(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TradingCard> paginatedDeepPage() {
+        return tradingCardService.getPaginatedCards(deepPage, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TradingCard> filterByNamePage() {
+        return tradingCardService.filterAndSortCards(MIN_PRICE, MAX_PRICE, SPECIALTY, "name", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TradingCard> filterByPricePage() {
+        return tradingCardService.filterAndSortCards(MIN_PRICE, MAX_PRICE, SPECIALTY, "price", 0, PAGE_SIZE);
+    }
+
+    // what the storefront asks for today: the whole filtered list, no limit
+    @Benchmark
+    public List<TradingCard> filterByNameUnbounded() {
+        return tradingCardService.filterAndSortCards(MIN_PRICE, MAX_PRICE, SPECIALTY, "name");
+    }
+
+    @Benchmark
+    public List<TradingCard> filterByPriceUnbounded() {
+        return tradingCardService.filterAndSortCards(MIN_PRICE, MAX_PRICE, SPECIALTY, "price");
+    }
+
+    @Benchmark
+    public List<TradingCard> searchIndexed() {
+        return tradingCardService.searchCards("compiler", 0, 100);
+    }
+
+    // two characters, too short for the trigram index, so every card is checked
+    @Benchmark
+    public List<TradingCard> searchShortQuery() {
+        return tradingCardService.searchCards("ad", 0, 100);
+    }
+}
@@ -2,8 +2,10 @@ package edu.byui.apj.storefront.db;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DbApplication {
 
     public static void main(String[] args) {
@@ -1,26 +1,105 @@
 package edu.byui.apj.storefront.db.controller;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.CartPurgeResult;
 import edu.byui.apj.storefront.db.model.Item;
 import edu.byui.apj.storefront.db.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/cart")
 @CrossOrigin(origins = {"http://localhost:8080","http://localhost:8083"})
 public class CartController {
 
+    private static final int NO_ORDER_PAGE_SIZE = 1000;
+    // carts come with their items, so fewer per page than bare ids
+    private static final int NO_ORDER_CART_PAGE_SIZE = 200;
+    // the same defaults as the converter that writes the other responses, e.g. ISO-8601 timestamps
+    private static final ObjectWriter JSON_WRITER = Jackson2ObjectMapperBuilder.json().build().writer();
+
     @Autowired
     private CartService cartService;
 
+    /**
+     * Every cart without an order, with its items, as one JSON array. The carts are read a keyset
+     * page at a time and each page is written and flushed before the next one is read.
+     */
     @GetMapping("/noorder")
-    public ResponseEntity<List<Cart>> getCartNoOrder() {
-        List<Cart> mycarts = cartService.getCartsWithoutOrders();
-        return ResponseEntity.ok(mycarts);
+    public ResponseEntity<StreamingResponseBody> getCartNoOrder() {
+        StreamingResponseBody body = jsonArray(
+                afterId -> cartService.getCartsWithoutOrders(afterId, NO_ORDER_CART_PAGE_SIZE),
+                Cart::getId, NO_ORDER_CART_PAGE_SIZE);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Ids of carts without an order that have been idle for at least {@code olderThan}, as one JSON
+     * array. The ids are read a keyset page at a time and each page is flushed before the next one
+     * is read, so memory stays flat however many abandoned carts there are.
+     */
+    @GetMapping("/noorder/ids")
+    public ResponseEntity<StreamingResponseBody> getCartIdsNoOrder(
+            @RequestParam(defaultValue = "PT24H") Duration olderThan) {
+        Instant cutoff = Instant.now().minus(olderThan);
+        StreamingResponseBody body = jsonArray(
+                afterId -> cartService.getCartIdsWithoutOrders(cutoff, afterId, NO_ORDER_PAGE_SIZE),
+                Function.identity(), NO_ORDER_PAGE_SIZE);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Writes the pages as one array; a page shorter than pageSize is the last one
+    private static <T> StreamingResponseBody jsonArray(Function<String, List<T>> pageAfter,
+                                                       Function<T, String> idOf, int pageSize) {
+        return out -> {
+            out.write('[');
+            String afterId = "";
+            boolean first = true;
+            List<T> page;
+            do {
+                page = pageAfter.apply(afterId);
+                for (T element : page) {
+                    if (!first) {
+                        out.write(',');
+                    }
+                    first = false;
+                    out.write(JSON_WRITER.writeValueAsBytes(element));
+                }
+                out.flush();
+                if (!page.isEmpty()) {
+                    afterId = idOf.apply(page.get(page.size() - 1));
+                }
+            } while (page.size() == pageSize);
+            out.write(']');
+        };
+    }
+
+    /**
+     * Deletes carts without an order that have been idle for at least {@code olderThan}, in chunks
+     * of {@code chunkSize}, and stops after {@code maxChunks}; call again while {@code more} is true.
+     */
+    @PostMapping("/purge")
+    public ResponseEntity<CartPurgeResult> purgeAbandonedCarts(
+            @RequestParam(defaultValue = "PT24H") Duration olderThan,
+            @RequestParam(defaultValue = "1000") int chunkSize,
+            @RequestParam(defaultValue = "100") int maxChunks) {
+        if (chunkSize <= 0 || maxChunks <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        CartPurgeResult result = cartService.purgeAbandonedCarts(Instant.now().minus(olderThan), chunkSize, maxChunks);
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{cartId}")
@@ -62,5 +141,9 @@ public class CartController {
         return ResponseEntity.ok(updatedCart);
     }
 
+    // An item edit based on a version that has since changed; the client should reload the cart
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
-
@@ -6,7 +6,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
 @Entity
@@ -17,6 +19,10 @@ public class Cart {
 
     String personId;
 
+    // Last time the cart or one of its items changed; carts idle for long enough count as abandoned
+    @UpdateTimestamp
+    Instant updatedAt;
+
     @JsonManagedReference
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     List<Item> items;
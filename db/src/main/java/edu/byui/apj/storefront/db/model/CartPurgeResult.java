@@ -0,0 +1,14 @@
+package edu.byui.apj.storefront.db.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Outcome of one purge call; more is true when it stopped at maxChunks with abandoned carts left
+@Data
+@AllArgsConstructor
+public class CartPurgeResult {
+    long purged;
+    int batches;
+    boolean more;
+    long millis;
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -28,4 +29,8 @@ public class Item {
     String name;
     Double price;
     Integer quantity;
+
+    // Bumped on every change; clients send back the version they last saw and get a 409 if it moved on
+    @Version
+    Long version;
 }
@@ -1,14 +1,51 @@
 package edu.byui.apj.storefront.db.repository;
 
 import edu.byui.apj.storefront.db.model.Cart;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface CartRepository extends JpaRepository<Cart, String> {
 
-    @Query("SELECT c FROM Cart c WHERE c.id NOT IN (SELECT o.cart.id FROM CardOrder o WHERE o.cart IS NOT NULL)")
-    List<Cart> findCartsWithoutOrders();
+    // Ids only, one keyset page at a time in id order, whatever the age of the cart
+    @Query("SELECT c.id FROM Cart c WHERE c.id > :afterId "
+            + "AND NOT EXISTS (SELECT 1 FROM CardOrder o WHERE o.cart = c) ORDER BY c.id")
+    List<String> findIdsWithoutOrders(@Param("afterId") String afterId, Limit limit);
+
+    // Ids only, one keyset page at a time in id order; the NOT EXISTS probes the unique index on card_order.cart_id
+    @Query("SELECT c.id FROM Cart c WHERE c.id > :afterId AND (c.updatedAt IS NULL OR c.updatedAt < :cutoff) "
+            + "AND NOT EXISTS (SELECT 1 FROM CardOrder o WHERE o.cart = c) ORDER BY c.id")
+    List<String> findIdsWithoutOrders(@Param("afterId") String afterId, @Param("cutoff") Instant cutoff, Limit limit);
+
+    // Both purge statements re-check the cart, so one that got an order or an edit since its id was read is kept
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.cart.id IN (SELECT c.id FROM Cart c WHERE c.id IN :ids "
+            + "AND (c.updatedAt IS NULL OR c.updatedAt < :cutoff) "
+            + "AND NOT EXISTS (SELECT 1 FROM CardOrder o WHERE o.cart = c))")
+    int deleteItemsOfAbandoned(@Param("ids") Collection<String> ids, @Param("cutoff") Instant cutoff);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Cart c WHERE c.id IN :ids AND (c.updatedAt IS NULL OR c.updatedAt < :cutoff) "
+            + "AND NOT EXISTS (SELECT 1 FROM CardOrder o WHERE o.cart = c)")
+    int deleteAbandoned(@Param("ids") Collection<String> ids, @Param("cutoff") Instant cutoff);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.updatedAt = :now WHERE c.id = :id")
+    int touch(@Param("id") String id, @Param("now") Instant now);
+
+    // Cart and items in one select, instead of a second one when the items are first touched
+    @EntityGraph(attributePaths = "items")
+    Optional<Cart> findWithItemsById(String id);
+
+    @EntityGraph(attributePaths = "items")
+    List<Cart> findWithItemsByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,35 @@
+package edu.byui.apj.storefront.db.repository;
+
+import edu.byui.apj.storefront.db.model.Item;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Single-row item changes keyed by cart, so editing one item never loads or merges the rest of the
+ * cart. Both statements clear the persistence context afterwards, so a cart read later in the same
+ * transaction sees the new rows.
+ */
+public interface ItemRepository extends JpaRepository<Item, Long> {
+
+    boolean existsByIdAndCartId(Long id, String cartId);
+
+    // A null expectedVersion updates whatever version is stored, including rows written before the
+    // column existed (version NULL); otherwise nothing changes unless it matches
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.cardId = :cardId, i.name = :name, i.price = :price, i.quantity = :quantity, "
+            + "i.version = COALESCE(i.version, 0) + 1 "
+            + "WHERE i.id = :id AND i.cart.id = :cartId AND (:expectedVersion IS NULL OR i.version = :expectedVersion)")
+    int updateInCart(@Param("cartId") String cartId,
+                     @Param("id") Long id,
+                     @Param("cardId") String cardId,
+                     @Param("name") String name,
+                     @Param("price") Double price,
+                     @Param("quantity") Integer quantity,
+                     @Param("expectedVersion") Long expectedVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.id = :id AND i.cart.id = :cartId")
+    int deleteFromCart(@Param("cartId") String cartId, @Param("id") Long id);
+}
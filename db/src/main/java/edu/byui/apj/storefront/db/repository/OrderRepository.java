@@ -1,7 +1,14 @@
 package edu.byui.apj.storefront.db.repository;
 
 import edu.byui.apj.storefront.db.model.CardOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface OrderRepository extends JpaRepository<CardOrder, Long> {
+
+    // Everything GET /order/{id} serializes, joined into one select instead of a lazy load per association
+    @EntityGraph(attributePaths = {"cart", "cart.items", "shippingAddress", "customer"})
+    Optional<CardOrder> findWithDetailsById(Long id);
 }
@@ -1,14 +1,22 @@
 package edu.byui.apj.storefront.db.service;
 
 import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.CartPurgeResult;
 import edu.byui.apj.storefront.db.model.Item;
 import edu.byui.apj.storefront.db.repository.CartRepository;
+import edu.byui.apj.storefront.db.repository.ItemRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 
 @Slf4j
 @Service
@@ -16,62 +24,178 @@ public class CartService {
     @Autowired
     private CartRepository cartRepository;
 
-    public Cart addItemToCart(String cartId, Item item) {
-        // Find the cart
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
+    @Autowired
+    private ItemRepository itemRepository;
 
-        // Set the item's cart reference
-        item.setCart(cart);
+    // Present only with storefront.cart.write-behind.enabled; edits and reads then go through memory
+    @Autowired(required = false)
+    private CartWriteBehindStore writeBehind;
 
-        // Add item to cart's list
-        cart.getItems().add(item);
+    // Purge chunks commit one by one; an annotated method called from this class would not get a transaction
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-        // Save the updated cart (items will also be saved due to cascade)
-        return cartRepository.save(cart);
+    @Transactional
+    public Cart addItemToCart(String cartId, Item item) {
+        if (writeBehind != null) {
+            return writeBehind.addItemToCart(cartId, item);
+        }
+        if (!cartRepository.existsById(cartId)) {
+            throw new RuntimeException("Cart not found");
+        }
+        if (item.getId() != null && itemRepository.existsByIdAndCartId(item.getId(), cartId)) {
+            // adding an item the cart already has replaces it, as the write-behind store does
+            itemRepository.updateInCart(cartId, item.getId(), item.getCardId(), item.getName(),
+                    item.getPrice(), item.getQuantity(), null);
+            cartRepository.touch(cartId, Instant.now());
+            return getCart(cartId);
+        }
+        if (item.getId() != null && itemRepository.existsById(item.getId())) {
+            // the id is taken by an item of another cart
+            throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+        }
+
+        // Insert just this row; the cart is only referenced by id, not loaded
+        item.setCart(cartRepository.getReferenceById(cartId));
+        item.setVersion(null);
+        itemRepository.save(item);
+        cartRepository.touch(cartId, Instant.now());
+
+        return getCart(cartId);
     }
 
+    @Transactional
     public Cart removeItemFromCart(String cartId, Long itemId) {
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
-
-        // Remove the item from the cart's list
-        cart.getItems().removeIf(item -> item.getId().equals(itemId));
-
-        // Save updated cart
-        return cartRepository.save(cart);
+        if (writeBehind != null) {
+            return writeBehind.removeItemFromCart(cartId, itemId);
+        }
+        // Deleting an item that is not (or no longer) in the cart is a no-op
+        if (itemRepository.deleteFromCart(cartId, itemId) > 0) {
+            cartRepository.touch(cartId, Instant.now());
+        }
+        return getCart(cartId);
     }
 
+    @Transactional
     public Cart updateCartItem(String cartId, Item item) {
-        // Find the cart
-        Cart cart = cartRepository.findById(cartId)
-                .orElseThrow(() -> new RuntimeException("Cart not found"));
         log.info("Updating item {}", item);
-
-        // Ensure item exists in the cart, then update
-        cart.getItems().removeIf(i -> i.getId().equals(item.getId()));
-        item.setCart(cart);
-        cart.getItems().add(item);
-
-        // Save the updated cart
-        return cartRepository.save(cart);
+        if (writeBehind != null) {
+            return writeBehind.updateCartItem(cartId, item);
+        }
+
+        int updated = itemRepository.updateInCart(cartId, item.getId(), item.getCardId(), item.getName(),
+                item.getPrice(), item.getQuantity(), item.getVersion());
+        if (updated == 0) {
+            if (item.getVersion() != null || itemRepository.existsByIdAndCartId(item.getId(), cartId)) {
+                // someone else changed or removed the item since the client read it
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+            // an unversioned update of an item the cart does not have yet adds it, as before
+            return addItemToCart(cartId, item);
+        }
+        cartRepository.touch(cartId, Instant.now());
+
+        return getCart(cartId);
     }
 
     public Cart getCart(String cartId) {
-        return cartRepository.findById(cartId)
+        if (writeBehind != null) {
+            return writeBehind.getCart(cartId);
+        }
+        return cartRepository.findWithItemsById(cartId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
     }
 
+    /**
+     * Makes sure the database has the latest state of the cart, e.g. before an order refers to it.
+     */
+    public void flushCart(String cartId) {
+        if (writeBehind != null) {
+            writeBehind.flushCart(cartId);
+        }
+    }
+
     public Cart saveCart(Cart cart){
+        if (writeBehind != null) {
+            return writeBehind.saveCart(cart);
+        }
         return cartRepository.save(cart);
     }
 
-    public List<Cart> getCartsWithoutOrders() {
-        return cartRepository.findCartsWithoutOrders();
+    /**
+     * Carts with no order, with their items, in id order, starting after {@code afterId} (empty for
+     * the first page).
+     */
+    public List<Cart> getCartsWithoutOrders(String afterId, int limit) {
+        if (writeBehind != null && afterId.isEmpty()) {
+            writeBehind.flush();
+        }
+        List<String> ids = cartRepository.findIdsWithoutOrders(afterId, Limit.of(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Cart> carts = new ArrayList<>(cartRepository.findWithItemsByIdIn(ids));
+        carts.sort(Comparator.comparing(Cart::getId));
+        return carts;
+    }
+
+    /**
+     * Ids of carts with no order that have not changed since {@code cutoff}, in id order, starting
+     * after {@code afterId} (empty for the first page).
+     */
+    public List<String> getCartIdsWithoutOrders(Instant cutoff, String afterId, int limit) {
+        if (writeBehind != null && afterId.isEmpty()) {
+            writeBehind.flush();
+        }
+        return cartRepository.findIdsWithoutOrders(afterId, cutoff, Limit.of(limit));
+    }
+
+    /**
+     * Deletes carts without an order that have not changed since {@code cutoff}, {@code chunkSize}
+     * at a time: each chunk is one transaction that reads the next ids and deletes their items and
+     * then the carts with one statement each. Stops after {@code maxChunks} chunks so a caller can
+     * report progress and call again.
+     */
+    public CartPurgeResult purgeAbandonedCarts(Instant cutoff, int chunkSize, int maxChunks) {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+        long start = System.nanoTime();
+        long purged = 0;
+        int batches = 0;
+        boolean more = true;
+        while (more && batches < maxChunks) {
+            PurgedChunk chunk = transactionTemplate.execute(status -> {
+                // always from the start: the previous chunk is gone, so no keyset cursor is needed
+                List<String> ids = cartRepository.findIdsWithoutOrders("", cutoff, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    return new PurgedChunk(ids, 0);
+                }
+                cartRepository.deleteItemsOfAbandoned(ids, cutoff);
+                return new PurgedChunk(ids, cartRepository.deleteAbandoned(ids, cutoff));
+            });
+            if (chunk.ids().isEmpty()) {
+                more = false;
+                break;
+            }
+            if (writeBehind != null) {
+                chunk.ids().forEach(writeBehind::evict);
+            }
+            purged += chunk.carts();
+            batches++;
+            more = chunk.ids().size() == chunkSize;
+        }
+        return new CartPurgeResult(purged, batches, more, (System.nanoTime() - start) / 1_000_000);
     }
 
     public void removeCart(String cartId) {
+        if (writeBehind != null) {
+            writeBehind.removeCart(cartId);
+            return;
+        }
         cartRepository.deleteById(cartId);
     }
-}
 
+    private record PurgedChunk(List<String> ids, int carts) {
+    }
+}
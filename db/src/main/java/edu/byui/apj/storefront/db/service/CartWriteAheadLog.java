@@ -0,0 +1,115 @@
+package edu.byui.apj.storefront.db.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of cart changes, one line per change, split into numbered segment files.
+ * <p>
+ * Appends go to the newest segment and are forced to disk before they return when {@code fsync}
+ * is on. {@link #rotate()} starts a new segment; once everything written before the rotation is
+ * in the database, {@link #deleteBefore(long)} drops the older segments. On startup
+ * {@link #readAll()} returns every line still on disk, oldest first.
+ * <p>
+ * Records of carts that cannot be written back go to a separate quarantine file with
+ * {@link #quarantine(String)}; it is neither replayed nor deleted, and is kept for someone to repair.
+ */
+class CartWriteAheadLog implements AutoCloseable {
+
+    private static final String PREFIX = "cart-wal-";
+    private static final String SUFFIX = ".log";
+    private static final String QUARANTINE = "cart-quarantine.log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private long segment;
+    private FileChannel channel;
+
+    CartWriteAheadLog(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        List<Long> existing = segments();
+        this.segment = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+        open(segment + 1);
+    }
+
+    synchronized void append(String line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to cart write-ahead log", e);
+        }
+    }
+
+    synchronized void quarantine(String line) throws IOException {
+        Files.writeString(directory.resolve(QUARANTINE), line + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND,
+                StandardOpenOption.SYNC);
+    }
+
+    /**
+     * Seals the current segment and starts a new one; returns the number of the new segment.
+     */
+    synchronized long rotate() throws IOException {
+        channel.close();
+        open(segment + 1);
+        return segment;
+    }
+
+    synchronized void deleteBefore(long firstKept) throws IOException {
+        for (long number : segments()) {
+            if (number < firstKept) {
+                Files.deleteIfExists(path(number));
+            }
+        }
+    }
+
+    List<String> readAll() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (long number : segments()) {
+            lines.addAll(Files.readAllLines(path(number), StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void open(long number) throws IOException {
+        segment = number;
+        channel = FileChannel.open(path(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path path(long number) {
+        return directory.resolve(PREFIX + String.format("%012d", number) + SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package edu.byui.apj.storefront.db.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.Item;
+import edu.byui.apj.storefront.db.repository.CartRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cart tier in front of {@link CartRepository}.
+ * <p>
+ * Cart edits are applied to a copy of the cart held in memory and appended to a
+ * {@link CartWriteAheadLog} before they return, so a cart that is being clicked through
+ * {@code +}/{@code -} costs one log append per click instead of one transaction. Dirty carts are
+ * written back on a schedule: however many edits a cart took since the last flush, it is written
+ * once, in id order, {@code batch-size} carts per transaction. Reads are served from memory.
+ * <p>
+ * Item versions are checked and bumped here, not by Hibernate, and the versions handed out may
+ * jump once a cart has been written back and reloaded; a client holding an old one gets a 409
+ * and reloads the cart, as it would for any other conflict.
+ * <p>
+ * Log records left over from a crash are replayed into memory and flushed on startup.
+ * <p>
+ * A batch that fails is retried one cart at a time, so one bad cart does not hold back the rest.
+ * A cart that fails {@code max-failures} flushes in a row is quarantined: its latest state goes to
+ * the quarantine log, it stops being retried and it no longer keeps old log segments alive. It
+ * stays in memory, and its next edit makes it dirty again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storefront.cart.write-behind.enabled", havingValue = "true")
+public class CartWriteBehindStore {
+
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CartWriteAheadLog wal;
+    private final int batchSize;
+    private final int maxCarts;
+    private final int maxFailures;
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private final Set<String> dirtyIds = ConcurrentHashMap.newKeySet();
+    // failed write-backs in a row per cart; only touched under flushLock
+    private final Map<String, Integer> failures = new HashMap<>();
+    private final Set<String> quarantined = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+
+    public CartWriteBehindStore(CartRepository cartRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${storefront.cart.write-behind.wal-dir:cart-wal}") Path walDir,
+                                @Value("${storefront.cart.write-behind.fsync:true}") boolean fsync,
+                                @Value("${storefront.cart.write-behind.batch-size:100}") int batchSize,
+                                @Value("${storefront.cart.write-behind.max-carts:100000}") int maxCarts,
+                                @Value("${storefront.cart.write-behind.max-failures:3}") int maxFailures) throws IOException {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.wal = new CartWriteAheadLog(walDir, fsync);
+        this.batchSize = batchSize;
+        this.maxCarts = maxCarts;
+        this.maxFailures = maxFailures;
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        int replayed = 0;
+        for (String line : wal.readAll()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            WalRecord record;
+            try {
+                record = objectMapper.readValue(line, WalRecord.class);
+            } catch (JsonProcessingException e) {
+                // a crash in the middle of an append leaves a torn last line; it was never acknowledged
+                log.warn("Skipping unreadable cart log record: {}", e.getOriginalMessage());
+                continue;
+            }
+            slots.put(record.cartId(), new Slot(record.cart()));
+            dirtyIds.add(record.cartId());
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} cart log records for {} carts", replayed, dirtyIds.size());
+            flush();
+        }
+    }
+
+    public Cart getCart(String cartId) {
+        return withSlot(cartId, slot -> copy(slot.cart));
+    }
+
+    public Cart addItemToCart(String cartId, Item item) {
+        return withSlot(cartId, slot -> {
+            Cart cart = slot.cart;
+            Item existing = find(cart, item.getId());
+            Item added = copy(item, cart);
+            added.setVersion(existing == null ? 0L : existing.getVersion() + 1);
+            if (existing != null) {
+                cart.getItems().removeIf(held -> held == existing);
+            }
+            cart.getItems().add(added);
+            return changed(cartId, slot);
+        });
+    }
+
+    public Cart removeItemFromCart(String cartId, Long itemId) {
+        return withSlot(cartId, slot -> {
+            Item existing = find(slot.cart, itemId);
+            if (existing == null) {
+                return copy(slot.cart);
+            }
+            slot.cart.getItems().removeIf(held -> held == existing);
+            return changed(cartId, slot);
+        });
+    }
+
+    public Cart updateCartItem(String cartId, Item item) {
+        return withSlot(cartId, slot -> {
+            Item existing = find(slot.cart, item.getId());
+            if (existing == null && item.getVersion() == null) {
+                // an unversioned update of an item the cart does not have yet adds it
+                Item added = copy(item, slot.cart);
+                added.setVersion(0L);
+                slot.cart.getItems().add(added);
+                return changed(cartId, slot);
+            }
+            if (existing == null || (item.getVersion() != null && !item.getVersion().equals(existing.getVersion()))) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+            existing.setCardId(item.getCardId());
+            existing.setName(item.getName());
+            existing.setPrice(item.getPrice());
+            existing.setQuantity(item.getQuantity());
+            existing.setVersion(existing.getVersion() + 1);
+            return changed(cartId, slot);
+        });
+    }
+
+    public Cart saveCart(Cart cart) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(cart.getId(), id -> new Slot(null));
+            synchronized (slot) {
+                if (slot.evicted) {
+                    continue;
+                }
+                Cart saved = copy(cart);
+                for (Item item : saved.getItems()) {
+                    if (item.getVersion() == null) {
+                        item.setVersion(0L);
+                    }
+                }
+                slot.cart = saved;
+                return changed(cart.getId(), slot);
+            }
+        }
+    }
+
+    public void removeCart(String cartId) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(cartId, id -> new Slot(null));
+            synchronized (slot) {
+                if (slot.evicted) {
+                    continue;
+                }
+                slot.cart = null;
+                changed(cartId, slot);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes one cart back right away and drops it from memory, so the next read comes from the
+     * database with the versions Hibernate has for it. Used before a cart is attached to an order.
+     */
+    public void flushCart(String cartId) {
+        synchronized (flushLock) {
+            writeBack(List.of(cartId), true);
+        }
+    }
+
+    /**
+     * Writes every dirty cart back. The current log segment is sealed first and deleted once
+     * every cart in it has been written.
+     */
+    @Scheduled(fixedDelayString = "${storefront.cart.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        synchronized (flushLock) {
+            try {
+                long firstKept = wal.rotate();
+                List<String> ids = dirtyIds.stream().sorted().toList();
+                boolean allWritten = true;
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    allWritten &= writeBatch(ids.subList(from, Math.min(from + batchSize, ids.size())));
+                }
+                if (allWritten) {
+                    wal.deleteBefore(firstKept);
+                } else {
+                    log.warn("Keeping the cart log: {} carts are not written back yet, {} are quarantined",
+                            dirtyIds.size(), quarantined.size());
+                }
+                if (!ids.isEmpty()) {
+                    log.debug("Flushed {} dirty carts", ids.size());
+                }
+            } catch (IOException e) {
+                log.error("Could not rotate the cart log", e);
+            }
+            evictOverflow();
+        }
+    }
+
+    // Carts with edits that are not in the database yet, quarantined ones included
+    public int backlog() {
+        return dirtyIds.size() + quarantined.size();
+    }
+
+    public Set<String> quarantined() {
+        return Set.copyOf(quarantined);
+    }
+
+    /**
+     * Drops a cart from memory unless it still has edits to write back; its next read loads it
+     * from the database again.
+     */
+    public void evict(String cartId) {
+        Slot slot = slots.get(cartId);
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            if (!dirtyIds.contains(cartId) && !quarantined.contains(cartId)) {
+                slot.evicted = true;
+                slots.remove(cartId, slot);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        flush();
+        wal.close();
+    }
+
+    // True once every cart of the batch is either written back or quarantined
+    private boolean writeBatch(List<String> ids) {
+        if (writeBack(ids, false)) {
+            failures.keySet().removeAll(ids);
+            return true;
+        }
+        boolean allWritten = true;
+        for (String id : ids) {
+            if (ids.size() > 1 && writeBack(List.of(id), false)) {
+                failures.remove(id);
+            } else {
+                allWritten &= failed(id);
+            }
+        }
+        return allWritten;
+    }
+
+    private boolean failed(String cartId) {
+        int count = failures.merge(cartId, 1, Integer::sum);
+        return count >= maxFailures && quarantine(cartId);
+    }
+
+    private boolean quarantine(String cartId) {
+        Slot slot = slots.get(cartId);
+        if (slot == null) {
+            return false;
+        }
+        synchronized (slot) {
+            try {
+                wal.quarantine(objectMapper.writeValueAsString(new WalRecord(cartId, slot.cart)));
+            } catch (IOException e) {
+                log.error("Could not quarantine cart {}", cartId, e);
+                return false;
+            }
+            dirtyIds.remove(cartId);
+            quarantined.add(cartId);
+        }
+        failures.remove(cartId);
+        log.error("Cart {} failed to write back {} times in a row; moved it to the quarantine log", cartId, maxFailures);
+        return true;
+    }
+
+    private boolean writeBack(List<String> ids, boolean evictAfter) {
+        Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+        for (String id : ids) {
+            Slot slot = slots.get(id);
+            if (slot == null) {
+                continue;
+            }
+            synchronized (slot) {
+                if (dirtyIds.contains(id)) {
+                    snapshots.put(id, new Snapshot(slot.cart == null ? null : copy(slot.cart), slot.dirtyVersion));
+                }
+            }
+        }
+        try {
+            if (!snapshots.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> apply(snapshots));
+            }
+        } catch (RuntimeException e) {
+            // the carts stay dirty and are retried on the next flush; the log still has them
+            log.warn("Could not write back carts {}", snapshots.keySet(), e);
+            return false;
+        }
+        for (String id : ids) {
+            Slot slot = slots.get(id);
+            if (slot == null) {
+                continue;
+            }
+            synchronized (slot) {
+                Snapshot snapshot = snapshots.get(id);
+                if (snapshot != null && snapshot.dirtyVersion() == slot.dirtyVersion) {
+                    dirtyIds.remove(id);
+                }
+                if (!dirtyIds.contains(id) && !quarantined.contains(id) && (slot.cart == null || evictAfter)) {
+                    slot.evicted = true;
+                    slots.remove(id, slot);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void apply(Map<String, Snapshot> snapshots) {
+        Map<String, Cart> stored = cartRepository.findWithItemsByIdIn(snapshots.keySet()).stream()
+                .collect(Collectors.toMap(Cart::getId, Function.identity()));
+        snapshots.forEach((id, snapshot) -> {
+            Cart hot = snapshot.cart();
+            Cart current = stored.get(id);
+            if (hot == null) {
+                if (current != null) {
+                    cartRepository.delete(current);
+                }
+            } else if (current == null) {
+                hot.getItems().forEach(item -> item.setVersion(null));
+                cartRepository.save(hot);
+            } else {
+                current.setPersonId(hot.getPersonId());
+                current.setUpdatedAt(Instant.now());
+                Map<Long, Item> hotItems = hot.getItems().stream()
+                        .collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> b, LinkedHashMap::new));
+                current.getItems().removeIf(item -> !hotItems.containsKey(item.getId()));
+                Map<Long, Item> currentItems = current.getItems().stream()
+                        .collect(Collectors.toMap(Item::getId, Function.identity()));
+                for (Item item : hotItems.values()) {
+                    Item target = currentItems.get(item.getId());
+                    if (target == null) {
+                        Item added = copy(item, current);
+                        // Hibernate assigns the version of a new row itself
+                        added.setVersion(null);
+                        current.getItems().add(added);
+                    } else if (!sameContent(target, item)) {
+                        target.setCardId(item.getCardId());
+                        target.setName(item.getName());
+                        target.setPrice(item.getPrice());
+                        target.setQuantity(item.getQuantity());
+                    }
+                }
+            }
+        });
+    }
+
+    // clean carts beyond max-carts are dropped and reloaded from the database on their next read
+    private void evictOverflow() {
+        Iterator<String> ids = slots.keySet().iterator();
+        while (slots.size() > maxCarts && ids.hasNext()) {
+            evict(ids.next());
+        }
+    }
+
+    private <T> T withSlot(String cartId, Function<Slot, T> action) {
+        while (true) {
+            Slot slot = slots.get(cartId);
+            if (slot == null) {
+                Cart loaded = cartRepository.findWithItemsById(cartId)
+                        .orElseThrow(() -> new RuntimeException("Cart not found"));
+                Cart hot = copy(loaded);
+                // rows written before the version column existed count as version 0 here
+                hot.getItems().forEach(item -> item.setVersion(Objects.requireNonNullElse(item.getVersion(), 0L)));
+                Slot fresh = new Slot(hot);
+                slot = Objects.requireNonNullElse(slots.putIfAbsent(cartId, fresh), fresh);
+            }
+            synchronized (slot) {
+                if (slot.evicted) {
+                    continue;
+                }
+                if (slot.cart == null) {
+                    throw new RuntimeException("Cart not found");
+                }
+                return action.apply(slot);
+            }
+        }
+    }
+
+    // called with the slot lock held, so log order per cart matches the order the edits were applied
+    private Cart changed(String cartId, Slot slot) {
+        slot.dirtyVersion++;
+        quarantined.remove(cartId);
+        // marked dirty before the append, so a flush that seals this record's segment also writes the cart
+        dirtyIds.add(cartId);
+        try {
+            wal.append(objectMapper.writeValueAsString(new WalRecord(cartId, slot.cart)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cart " + cartId, e);
+        }
+        return slot.cart == null ? null : copy(slot.cart);
+    }
+
+    private static Item find(Cart cart, Long itemId) {
+        return cart.getItems().stream()
+                .filter(item -> Objects.equals(item.getId(), itemId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static boolean sameContent(Item a, Item b) {
+        return Objects.equals(a.getCardId(), b.getCardId())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getPrice(), b.getPrice())
+                && Objects.equals(a.getQuantity(), b.getQuantity());
+    }
+
+    private static Cart copy(Cart source) {
+        Cart cart = new Cart();
+        cart.setId(source.getId());
+        cart.setPersonId(source.getPersonId());
+        cart.setUpdatedAt(source.getUpdatedAt());
+        List<Item> items = new ArrayList<>();
+        if (source.getItems() != null) {
+            source.getItems().forEach(item -> items.add(copy(item, cart)));
+        }
+        cart.setItems(items);
+        return cart;
+    }
+
+    private static Item copy(Item source, Cart cart) {
+        Item item = new Item();
+        item.setId(source.getId());
+        item.setCart(cart);
+        item.setCardId(source.getCardId());
+        item.setName(source.getName());
+        item.setPrice(source.getPrice());
+        item.setQuantity(source.getQuantity());
+        item.setVersion(source.getVersion());
+        return item;
+    }
+
+    // a null cart is a removed cart that has not been written back yet
+    private static final class Slot {
+        private Cart cart;
+        private long dirtyVersion;
+        private boolean evicted;
+
+        private Slot(Cart cart) {
+            this.cart = cart;
+        }
+    }
+
+    private record Snapshot(Cart cart, long dirtyVersion) {
+    }
+
+    record WalRecord(String cartId, Cart cart) {
+    }
+}
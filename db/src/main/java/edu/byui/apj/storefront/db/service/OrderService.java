@@ -18,12 +18,14 @@ public class OrderService {
     }
 
     public CardOrder saveOrder(CardOrder order) {
-        Cart cart = cartService.getCart(order.getCart().getId());
+        String cartId = order.getCart().getId();
+        cartService.flushCart(cartId);
+        Cart cart = cartService.getCart(cartId);
         order.setCart(cart);
         return orderRepository.save(order);
     }
 
     public Optional<CardOrder> getOrder(Long orderid) {
-        return orderRepository.findById(orderid);
+        return orderRepository.findWithDetailsById(orderid);
     }
 }
@@ -0,0 +1,92 @@
+package edu.byui.apj.storefront.db;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a burst of slow requests at the db service with a small Tomcat pool, once on platform
+ * threads and once with {@code spring.threads.virtual.enabled}, and compares how many requests
+ * were in flight at the same time. Tagged {@code load} and left out of the default test run.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final int REQUESTS = 64;
+    private static final long BLOCKING_MILLIS = 200;
+
+    @Test
+    void virtualThreadsLiftTheRequestConcurrencyCeiling() throws Exception {
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+        assertThat(platform.peak()).as("platform threads peak in flight").isLessThanOrEqualTo(TOMCAT_THREADS);
+        assertThat(virtual.peak()).as("virtual threads peak in flight").isGreaterThan(TOMCAT_THREADS * 2);
+        assertThat(virtual.millis()).as("virtual threads took %d ms, platform threads %d ms",
+                virtual.millis(), platform.millis()).isLessThan(platform.millis());
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        // stands in for a blocking JPA or upstream call holding the request thread
+        Filter blocking = (request, response, chain) -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            response.getWriter().write("ok");
+        };
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DbApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("blockingFilter",
+                        FilterRegistrationBean.class, () -> {
+                            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(blocking);
+                            registration.addUrlPatterns("/load-test");
+                            return registration;
+                        }))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load-test")).build();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertThat(response.get().statusCode()).isEqualTo(200);
+            }
+            return new LoadResult(peak.get(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private record LoadResult(int peak, long millis) {
+    }
+}
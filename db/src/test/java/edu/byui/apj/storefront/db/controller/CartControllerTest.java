@@ -1,6 +1,7 @@
 package edu.byui.apj.storefront.db.controller;
 
 import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.CartPurgeResult;
 import edu.byui.apj.storefront.db.model.Item;
 import edu.byui.apj.storefront.db.service.CartService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,12 +13,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -57,16 +62,72 @@ class CartControllerTest {
     void getCartNoOrder_shouldReturnListOfCarts() throws Exception {
         // Arrange
         List<Cart> carts = Arrays.asList(testCart);
-        when(cartService.getCartsWithoutOrders()).thenReturn(carts);
+        when(cartService.getCartsWithoutOrders(eq(""), anyInt())).thenReturn(carts);
 
         // Act & Assert
-        mockMvc.perform(get("/cart/noorder"))
+        MvcResult started = mockMvc.perform(get("/cart/noorder"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value("testCart123"))
                 .andExpect(jsonPath("$[0].personId").value("user123"));
 
-        verify(cartService).getCartsWithoutOrders();
+        verify(cartService).getCartsWithoutOrders(eq(""), anyInt());
+    }
+
+    @Test
+    void getCartNoOrder_shouldReadPagesUntilAShortOne() throws Exception {
+        // Arrange
+        List<Cart> fullPage = IntStream.range(0, 200).mapToObj(i -> cart(String.format("cart%03d", i))).toList();
+        when(cartService.getCartsWithoutOrders("", 200)).thenReturn(fullPage);
+        when(cartService.getCartsWithoutOrders("cart199", 200)).thenReturn(List.of(cart("cart200")));
+
+        // Act & Assert
+        MvcResult started = mockMvc.perform(get("/cart/noorder"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(201))
+                .andExpect(jsonPath("$[200].id").value("cart200"));
+    }
+
+    @Test
+    void getCartIdsNoOrder_shouldStreamIdsOfAbandonedCarts() throws Exception {
+        // Arrange
+        when(cartService.getCartIdsWithoutOrders(any(Instant.class), eq(""), anyInt()))
+                .thenReturn(List.of("cart1", "cart2"));
+
+        // Act & Assert
+        MvcResult started = mockMvc.perform(get("/cart/noorder/ids").param("olderThan", "PT1H"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0]").value("cart1"))
+                .andExpect(jsonPath("$[1]").value("cart2"));
+
+        verify(cartService).getCartIdsWithoutOrders(any(Instant.class), eq(""), anyInt());
+    }
+
+    @Test
+    void purgeAbandonedCarts_shouldReturnProgress() throws Exception {
+        // Arrange
+        when(cartService.purgeAbandonedCarts(any(Instant.class), eq(500), eq(10)))
+                .thenReturn(new CartPurgeResult(5000, 10, true, 42));
+
+        // Act & Assert
+        mockMvc.perform(post("/cart/purge")
+                        .param("olderThan", "PT1H")
+                        .param("chunkSize", "500")
+                        .param("maxChunks", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.purged").value(5000))
+                .andExpect(jsonPath("$.batches").value(10))
+                .andExpect(jsonPath("$.more").value(true));
     }
 
     @Test
@@ -166,6 +227,12 @@ class CartControllerTest {
         verify(cartService).updateCartItem(eq("testCart123"), any(Item.class));
     }
 
+    private static Cart cart(String id) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        return cart;
+    }
+
     @Test
     void allEndpoints_shouldHaveCorsEnabled() throws Exception {
         // Test CORS headers for one endpoint (they'll be the same for all)
@@ -8,7 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,7 +26,7 @@ class CartRepositoryTest {
     private CartRepository cartRepository;
 
     @Test
-    void findCartsWithoutOrders_shouldReturnOnlyCartsNotInOrders() {
+    void findIdsWithoutOrders_shouldReturnOnlyCartsNotInOrders() {
         // Create and persist test data
         Cart cart1 = new Cart();
         cart1.setId("cart1");
@@ -43,17 +46,16 @@ class CartRepositoryTest {
         entityManager.flush();
 
         // Execute the query
-        List<Cart> cartsWithoutOrders = cartRepository.findCartsWithoutOrders();
+        List<String> cartsWithoutOrders = cartRepository.findIdsWithoutOrders("", Limit.of(100));
 
         // Verify results
         assertThat(cartsWithoutOrders)
                 .hasSize(1)
-                .extracting(Cart::getId)
                 .containsExactly("cart2");
     }
 
     @Test
-    void findCartsWithoutOrders_shouldReturnEmptyListWhenAllCartsHaveOrders() {
+    void findIdsWithoutOrders_shouldReturnEmptyListWhenAllCartsHaveOrders() {
         // Create test carts
         Cart cart1 = new Cart();
         cart1.setId("cart1");
@@ -75,14 +77,14 @@ class CartRepositoryTest {
         entityManager.flush();
 
         // Execute query
-        List<Cart> result = cartRepository.findCartsWithoutOrders();
+        List<String> result = cartRepository.findIdsWithoutOrders("", Limit.of(100));
 
         // Verify
         assertThat(result).isEmpty();
     }
 
     @Test
-    void findCartsWithoutOrders_shouldReturnAllCartsWhenNoOrdersExist() {
+    void findIdsWithoutOrders_shouldReturnAllCartsWhenNoOrdersExist() {
         // Create test carts
         Cart cart1 = new Cart();
         cart1.setId("cart1");
@@ -104,17 +106,16 @@ class CartRepositoryTest {
         entityManager.flush();
 
         // Execute query
-        List<Cart> result = cartRepository.findCartsWithoutOrders();
+        List<String> result = cartRepository.findIdsWithoutOrders("", Limit.of(100));
 
         // Verify
         assertThat(result)
                 .hasSize(2)
-                .extracting(Cart::getId)
-                .containsExactlyInAnyOrder("cart1", "cart2");
+                .containsExactly("cart1", "cart2");
     }
 
     @Test
-    void findCartsWithoutOrders_shouldWorkWithCartsThatHaveItems() {
+    void findIdsWithoutOrders_shouldWorkWithCartsThatHaveItems() {
         // Create a cart with items
         Cart cartWithItems = new Cart();
         cartWithItems.setId("cartWithItems");
@@ -140,12 +141,89 @@ class CartRepositoryTest {
         entityManager.flush();
 
         // Execute query
-        List<Cart> result = cartRepository.findCartsWithoutOrders();
+        List<String> result = cartRepository.findIdsWithoutOrders("", Limit.of(100));
 
         // Verify only cartWithItems is returned (since cartWithoutItems has an order)
         assertThat(result)
                 .hasSize(1)
-                .extracting(Cart::getId)
                 .containsExactly("cartWithItems");
     }
-}
\ No newline at end of file
+
+    @Test
+    void findIdsWithoutOrders_shouldPageInIdOrder() {
+        for (String id : List.of("cart3", "cart1", "cart4", "cart2")) {
+            Cart cart = new Cart();
+            cart.setId(id);
+            entityManager.persist(cart);
+        }
+        entityManager.flush();
+
+        assertThat(cartRepository.findIdsWithoutOrders("", Limit.of(3))).containsExactly("cart1", "cart2", "cart3");
+        assertThat(cartRepository.findIdsWithoutOrders("cart3", Limit.of(3))).containsExactly("cart4");
+    }
+
+    @Test
+    void findIdsWithoutOrders_shouldSkipCartsChangedAfterTheCutoff() {
+        Cart cart = new Cart();
+        cart.setId("recentCart");
+        entityManager.persist(cart);
+        entityManager.flush();
+
+        List<String> result = cartRepository.findIdsWithoutOrders("", Instant.now().minus(Duration.ofHours(1)),
+                Limit.unlimited());
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void findIdsWithoutOrders_shouldPageByIdAfterTheLastIdSeen() {
+        for (String id : List.of("cartA", "cartB", "cartC")) {
+            Cart cart = new Cart();
+            cart.setId(id);
+            entityManager.persist(cart);
+        }
+        entityManager.flush();
+
+        List<String> firstPage = cartRepository.findIdsWithoutOrders("", later(), Limit.of(2));
+        List<String> secondPage = cartRepository.findIdsWithoutOrders(firstPage.get(1), later(), Limit.of(2));
+
+        assertThat(firstPage).containsExactly("cartA", "cartB");
+        assertThat(secondPage).containsExactly("cartC");
+    }
+
+    @Test
+    void deleteAbandoned_shouldKeepCartsThatGotAnOrder() {
+        Cart abandoned = new Cart();
+        abandoned.setId("abandoned");
+        entityManager.persist(abandoned);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setCart(abandoned);
+        item.setName("Test Item");
+        entityManager.persist(item);
+
+        Cart ordered = new Cart();
+        ordered.setId("ordered");
+        entityManager.persist(ordered);
+
+        CardOrder order = new CardOrder();
+        order.setCart(ordered);
+        entityManager.persist(order);
+        entityManager.flush();
+
+        List<String> ids = List.of("abandoned", "ordered");
+        int items = cartRepository.deleteItemsOfAbandoned(ids, later());
+        int carts = cartRepository.deleteAbandoned(ids, later());
+
+        assertThat(items).isEqualTo(1);
+        assertThat(carts).isEqualTo(1);
+        assertThat(cartRepository.existsById("abandoned")).isFalse();
+        assertThat(cartRepository.existsById("ordered")).isTrue();
+    }
+
+    // a cutoff every cart persisted by the test falls before
+    private static Instant later() {
+        return Instant.now().plus(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,92 @@
+package edu.byui.apj.storefront.db.repository;
+
+import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ItemRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        Cart cart = new Cart();
+        cart.setId("cart1");
+        entityManager.persist(cart);
+
+        Cart otherCart = new Cart();
+        otherCart.setId("cart2");
+        entityManager.persist(otherCart);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setCart(cart);
+        item.setName("Test Item");
+        item.setPrice(9.99);
+        item.setQuantity(1);
+        entityManager.persist(item);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void updateInCart_shouldBumpVersionWhenExpectedVersionMatches() {
+        int updated = itemRepository.updateInCart("cart1", 1L, null, "Test Item", 9.99, 2, 0L);
+
+        assertThat(updated).isEqualTo(1);
+        Item item = entityManager.find(Item.class, 1L);
+        assertThat(item.getQuantity()).isEqualTo(2);
+        assertThat(item.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void updateInCart_shouldChangeNothingForStaleVersion() {
+        int updated = itemRepository.updateInCart("cart1", 1L, null, "Test Item", 9.99, 5, 7L);
+
+        assertThat(updated).isZero();
+        assertThat(entityManager.find(Item.class, 1L).getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInCart_shouldIgnoreVersionWhenNoneIsExpected() {
+        int updated = itemRepository.updateInCart("cart1", 1L, null, "Test Item", 9.99, 3, null);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(entityManager.find(Item.class, 1L).getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void updateAndDelete_shouldOnlyTouchItemsOfTheGivenCart() {
+        assertThat(itemRepository.updateInCart("cart2", 1L, null, "Test Item", 9.99, 3, null)).isZero();
+        assertThat(itemRepository.deleteFromCart("cart2", 1L)).isZero();
+        assertThat(itemRepository.existsByIdAndCartId(1L, "cart1")).isTrue();
+
+        assertThat(itemRepository.deleteFromCart("cart1", 1L)).isEqualTo(1);
+        assertThat(itemRepository.existsByIdAndCartId(1L, "cart1")).isFalse();
+    }
+
+    @Test
+    void updateInCart_shouldUpdateRowWithoutVersionWhenNoneExpected() {
+        entityManager.getEntityManager().createNativeQuery("UPDATE item SET version = NULL WHERE id = 1").executeUpdate();
+        entityManager.clear();
+
+        int updated = itemRepository.updateInCart("cart1", 1L, null, "Test Item", 9.99, 3, null);
+
+        assertThat(updated).isEqualTo(1);
+        Item item = entityManager.find(Item.class, 1L);
+        assertThat(item.getQuantity()).isEqualTo(3);
+        assertThat(item.getVersion()).isEqualTo(1L);
+    }
+}
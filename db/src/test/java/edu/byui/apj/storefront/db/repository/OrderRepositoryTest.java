@@ -1,6 +1,9 @@
 package edu.byui.apj.storefront.db.repository;
 
 import edu.byui.apj.storefront.db.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -12,7 +15,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class OrderRepositoryTest {
 
     @Autowired
@@ -21,6 +24,9 @@ public class OrderRepositoryTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private CardOrder createTestOrder(String cartId) {
         // Create related entities first
         Customer customer = new Customer();
@@ -174,4 +180,32 @@ public class OrderRepositoryTest {
         // then
         assertThat(found.getOrderNotes()).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenFindWithDetailsById_thenOrderAndItemsTakeOneStatement() {
+        // given
+        CardOrder order = createTestOrder("Id8812fx");
+        entityManager.persist(order);
+        for (long id = 1; id <= 3; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setCart(order.getCart());
+            item.setName("Item " + id);
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        CardOrder found = orderRepository.findWithDetailsById(order.getId()).orElseThrow();
+        // everything Jackson touches when the order is written out
+        assertThat(found.getCart().getItems()).hasSize(3);
+        assertThat(found.getCustomer().getEmail()).isEqualTo("test@example.com");
+        assertThat(found.getShippingAddress().getCity()).isEqualTo("Rexburg");
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
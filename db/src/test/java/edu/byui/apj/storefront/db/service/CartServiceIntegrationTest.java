@@ -0,0 +1,48 @@
+package edu.byui.apj.storefront.db.service;
+
+import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CartServiceIntegrationTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Test
+    void addingTheSameItemTwiceReplacesItInsteadOfFailing() {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID().toString());
+        cart.setItems(new ArrayList<>());
+        cartService.saveCart(cart);
+        // the H2 database is shared by every test in the run, so item ids must not repeat
+        long itemId = System.nanoTime();
+
+        cartService.addItemToCart(cart.getId(), item(itemId, 1));
+        Cart result = cartService.addItemToCart(cart.getId(), item(itemId, 4));
+
+        assertThat(result.getItems()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getQuantity()).isEqualTo(4);
+                    assertThat(item.getVersion()).isEqualTo(1L);
+                });
+    }
+
+    private static Item item(long id, int quantity) {
+        Item item = new Item();
+        item.setId(id);
+        item.setCardId("card-1");
+        item.setName("Ada Lovelace");
+        item.setPrice(9.99);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
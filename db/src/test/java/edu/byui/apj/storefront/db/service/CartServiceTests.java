@@ -3,12 +3,15 @@ package edu.byui.apj.storefront.db.service;
 import edu.byui.apj.storefront.db.model.Cart;
 import edu.byui.apj.storefront.db.model.Item;
 import edu.byui.apj.storefront.db.repository.CartRepository;
+import edu.byui.apj.storefront.db.repository.ItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,6 +27,9 @@ class CartServiceTest {
     @Mock
     private CartRepository cartRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     @InjectMocks
     private CartService cartService;
 
@@ -47,8 +53,10 @@ class CartServiceTest {
     @Test
     void addItemToCart_shouldAddItemToExistingCart() {
         // Arrange
-        when(cartRepository.findById("testCart123")).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Cart savedCart = cartWith(testItem);
+        when(cartRepository.existsById("testCart123")).thenReturn(true);
+        when(cartRepository.getReferenceById("testCart123")).thenReturn(testCart);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(savedCart));
 
         // Act
         Cart result = cartService.addItemToCart("testCart123", testItem);
@@ -59,16 +67,56 @@ class CartServiceTest {
         assertEquals(testItem, result.getItems().get(0));
         assertEquals(testCart, testItem.getCart());
 
-        verify(cartRepository).findById("testCart123");
-        verify(cartRepository).save(testCart);
+        // only the new item row is written, the cart itself is not saved
+        verify(itemRepository).save(testItem);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void addItemToCart_shouldFailForUnknownCart() {
+        // Arrange
+        when(cartRepository.existsById("missing")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> cartService.addItemToCart("missing", testItem));
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    void addItemToCart_shouldReplaceItemTheCartAlreadyHas() {
+        // Arrange
+        testItem.setQuantity(3);
+        when(cartRepository.existsById("testCart123")).thenReturn(true);
+        when(itemRepository.existsByIdAndCartId(1L, "testCart123")).thenReturn(true);
+        when(itemRepository.updateInCart("testCart123", 1L, null, "Test Product", 9.99, 3, null)).thenReturn(1);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(cartWith(testItem)));
+
+        // Act
+        Cart result = cartService.addItemToCart("testCart123", testItem);
+
+        // Assert
+        assertEquals(3, result.getItems().get(0).getQuantity());
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    void addItemToCart_shouldRejectIdOfAnotherCartsItem() {
+        // Arrange
+        when(cartRepository.existsById("testCart123")).thenReturn(true);
+        when(itemRepository.existsByIdAndCartId(1L, "testCart123")).thenReturn(false);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> cartService.addItemToCart("testCart123", testItem));
+        verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
     void removeItemFromCart_shouldRemoveItem() {
         // Arrange
-        testCart.getItems().add(testItem); // Add item first
-        when(cartRepository.findById("testCart123")).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.deleteFromCart("testCart123", 1L)).thenReturn(1);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(testCart));
 
         // Act
         Cart result = cartService.removeItemFromCart("testCart123", 1L);
@@ -76,15 +124,15 @@ class CartServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.getItems().isEmpty());
-        verify(cartRepository).findById("testCart123");
-        verify(cartRepository).save(testCart);
+        verify(itemRepository).deleteFromCart("testCart123", 1L);
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
     void removeItemFromCart_shouldHandleNonExistentItem() {
         // Arrange
-        when(cartRepository.findById("testCart123")).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.deleteFromCart("testCart123", 99L)).thenReturn(0);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(testCart));
 
         // Act
         Cart result = cartService.removeItemFromCart("testCart123", 99L);
@@ -97,19 +145,14 @@ class CartServiceTest {
     @Test
     void updateCartItem_shouldUpdateExistingItem() {
         // Arrange
-        Item existingItem = new Item();
-        existingItem.setId(1L);
-        existingItem.setName("Old Name");
-        existingItem.setPrice(5.99);
-        testCart.getItems().add(existingItem);
-
         Item updatedItem = new Item();
         updatedItem.setId(1L);
         updatedItem.setName("New Name");
         updatedItem.setPrice(7.99);
+        updatedItem.setVersion(3L);
 
-        when(cartRepository.findById("testCart123")).thenReturn(Optional.of(testCart));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.updateInCart("testCart123", 1L, null, "New Name", 7.99, null, 3L)).thenReturn(1);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(cartWith(updatedItem)));
 
         // Act
         Cart result = cartService.updateCartItem("testCart123", updatedItem);
@@ -120,7 +163,60 @@ class CartServiceTest {
         Item item = result.getItems().get(0);
         assertEquals("New Name", item.getName());
         assertEquals(7.99, item.getPrice());
-        assertEquals(testCart, item.getCart());
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void updateCartItem_shouldRejectStaleVersion() {
+        // Arrange
+        testItem.setVersion(2L);
+        when(itemRepository.updateInCart("testCart123", 1L, null, "Test Product", 9.99, 1, 2L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> cartService.updateCartItem("testCart123", testItem));
+    }
+
+    @Test
+    void updateCartItem_shouldAddUnversionedItemTheCartDoesNotHave() {
+        // Arrange
+        when(itemRepository.updateInCart("testCart123", 1L, null, "Test Product", 9.99, 1, null)).thenReturn(0);
+        when(itemRepository.existsByIdAndCartId(1L, "testCart123")).thenReturn(false);
+        when(cartRepository.existsById("testCart123")).thenReturn(true);
+        when(cartRepository.getReferenceById("testCart123")).thenReturn(testCart);
+        when(cartRepository.findWithItemsById("testCart123")).thenReturn(Optional.of(cartWith(testItem)));
+
+        // Act
+        Cart result = cartService.updateCartItem("testCart123", testItem);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        verify(itemRepository).save(testItem);
+    }
+
+    @Test
+    void getCartsWithoutOrders_shouldReturnThePageInIdOrder() {
+        // Arrange
+        Cart first = new Cart();
+        first.setId("a");
+        Cart second = new Cart();
+        second.setId("b");
+        when(cartRepository.findIdsWithoutOrders("", Limit.of(2))).thenReturn(List.of("a", "b"));
+        when(cartRepository.findWithItemsByIdIn(List.of("a", "b"))).thenReturn(List.of(second, first));
+
+        // Act
+        List<Cart> result = cartService.getCartsWithoutOrders("", 2);
+
+        // Assert
+        assertEquals(List.of(first, second), result);
+    }
+
+    private Cart cartWith(Item item) {
+        Cart cart = new Cart();
+        cart.setId(testCart.getId());
+        cart.setPersonId(testCart.getPersonId());
+        cart.setItems(new ArrayList<>(List.of(item)));
+        return cart;
     }
 
     // ... rest of your test methods remain the same ...
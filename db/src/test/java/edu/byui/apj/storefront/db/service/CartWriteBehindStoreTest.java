@@ -0,0 +1,176 @@
+package edu.byui.apj.storefront.db.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.byui.apj.storefront.db.model.Cart;
+import edu.byui.apj.storefront.db.model.Item;
+import edu.byui.apj.storefront.db.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "storefront.cart.write-behind.enabled=true",
+        "storefront.cart.write-behind.flush-interval=PT1H",
+        "storefront.cart.write-behind.fsync=false"
+})
+class CartWriteBehindStoreTest {
+
+    @TempDir
+    static Path walDir;
+
+    @DynamicPropertySource
+    static void walDir(DynamicPropertyRegistry registry) {
+        registry.add("storefront.cart.write-behind.wal-dir", walDir::toString);
+    }
+
+    @Autowired
+    private CartWriteBehindStore store;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String cartId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        cartId = UUID.randomUUID().toString();
+        // the H2 database is shared by every test in the run, so item ids must not repeat
+        itemId = System.nanoTime();
+        Cart cart = new Cart();
+        cart.setId(cartId);
+        cart.setItems(new ArrayList<>());
+        cartRepository.save(cart);
+    }
+
+    @Test
+    void editsAreServedFromMemoryAndWrittenBackOnFlush() {
+        store.addItemToCart(cartId, item(itemId, 1, null));
+        store.updateCartItem(cartId, item(itemId, 2, 0L));
+        Cart edited = store.updateCartItem(cartId, item(itemId, 3, 1L));
+
+        assertThat(edited.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getQuantity()).isEqualTo(3);
+            assertThat(item.getVersion()).isEqualTo(2L);
+        });
+        assertThat(cartRepository.findWithItemsById(cartId).orElseThrow().getItems()).isEmpty();
+
+        store.flush();
+
+        assertThat(cartRepository.findWithItemsById(cartId).orElseThrow().getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(3));
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        store.addItemToCart(cartId, item(itemId, 1, null));
+        store.updateCartItem(cartId, item(itemId, 2, 0L));
+
+        assertThatThrownBy(() -> store.updateCartItem(cartId, item(itemId, 5, 0L)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(store.getCart(cartId).getItems().get(0).getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void removedCartIsDeletedOnFlush() {
+        store.removeCart(cartId);
+
+        assertThatThrownBy(() -> store.getCart(cartId)).hasMessage("Cart not found");
+        store.flush();
+        assertThat(cartRepository.existsById(cartId)).isFalse();
+    }
+
+    @Test
+    void unflushedEditsAreRecoveredFromTheLog() throws Exception {
+        store.addItemToCart(cartId, item(itemId, 4, null));
+
+        // a second store over the same log stands in for the service starting again after a crash
+        CartWriteBehindStore restarted = new CartWriteBehindStore(cartRepository, transactionManager,
+                objectMapper, walDir, false, 100, 1000, 3);
+        restarted.recover();
+        restarted.close();
+
+        assertThat(cartRepository.findWithItemsById(cartId).orElseThrow().getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(4));
+    }
+
+    @Test
+    void failingCartIsQuarantinedWithoutHoldingBackTheOthers(@TempDir Path ownWalDir) throws Exception {
+        // a store with its own log, so the segments counted here are only the ones it wrote
+        CartWriteBehindStore isolated = new CartWriteBehindStore(cartRepository, transactionManager,
+                objectMapper, ownWalDir, false, 100, 1000, 2);
+        Cart owner = new Cart();
+        owner.setId(UUID.randomUUID().toString());
+        owner.setItems(new ArrayList<>());
+        Item taken = item(itemId + 1, 1, null);
+        taken.setCart(owner);
+        owner.getItems().add(taken);
+        cartRepository.save(owner);
+        Cart bad = new Cart();
+        bad.setId(UUID.randomUUID().toString());
+        bad.setItems(new ArrayList<>());
+        cartRepository.save(bad);
+
+        isolated.addItemToCart(cartId, item(itemId, 2, null));
+        // the item id belongs to another cart's row, so writing this cart back always fails
+        isolated.addItemToCart(bad.getId(), item(itemId + 1, 5, null));
+
+        isolated.flush();
+
+        assertThat(cartRepository.findWithItemsById(cartId).orElseThrow().getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(2));
+        assertThat(isolated.backlog()).isEqualTo(1);
+        assertThat(segments(ownWalDir)).hasSize(2);
+
+        isolated.flush();
+
+        assertThat(isolated.quarantined()).containsExactly(bad.getId());
+        assertThat(segments(ownWalDir)).hasSize(1);
+        assertThat(Files.readString(ownWalDir.resolve("cart-quarantine.log"))).contains(bad.getId());
+        assertThat(isolated.getCart(bad.getId()).getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(5));
+        isolated.close();
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("cart-wal-")).toList();
+        }
+    }
+
+    private static Item item(long id, int quantity, Long version) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Test Item");
+        item.setPrice(9.99);
+        item.setQuantity(quantity);
+        item.setVersion(version);
+        return item;
+    }
+}
@@ -52,6 +52,7 @@ class OrderServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(testCart, result.getCart());
+        verify(cartService).flushCart("testCart123");
         verify(cartService).getCart("testCart123");
         verify(orderRepository).save(testOrder);
     }
@@ -86,7 +87,7 @@ class OrderServiceTest {
     @Test
     void getOrder_shouldReturnOrderWhenExists() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findWithDetailsById(1L)).thenReturn(Optional.of(testOrder));
 
         // Act
         Optional<CardOrder> result = orderService.getOrder(1L);
@@ -94,20 +95,20 @@ class OrderServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(testOrder, result.get());
-        verify(orderRepository).findById(1L);
+        verify(orderRepository).findWithDetailsById(1L);
     }
 
     @Test
     void getOrder_shouldReturnEmptyWhenOrderNotFound() {
         // Arrange
-        when(orderRepository.findById(99L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithDetailsById(99L)).thenReturn(Optional.empty());
 
         // Act
         Optional<CardOrder> result = orderService.getOrder(99L);
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(orderRepository).findById(99L);
+        verify(orderRepository).findWithDetailsById(99L);
     }
 
     @Test
@@ -1,79 +1,77 @@
 package edu.byui.apj.storefront.jms;
 
-import edu.byui.apj.storefront.model.Cart;
+import edu.byui.apj.storefront.model.CartPurgeResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClientRequest;
 
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 @Component
 public class CartCleanupJob {
     private static final Logger log = LoggerFactory.getLogger(CartCleanupJob.class);
     private final WebClient webClient;
+    private final Duration olderThan;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Duration purgeTimeout;
 
-    public CartCleanupJob(WebClient.Builder webClientBuilder) {
+    public CartCleanupJob(WebClient.Builder webClientBuilder,
+                          @Value("${storefront.cart-cleanup.older-than:PT24H}") Duration olderThan,
+                          @Value("${storefront.cart-cleanup.chunk-size:1000}") int chunkSize,
+                          @Value("${storefront.cart-cleanup.max-chunks-per-call:100}") int maxChunks,
+                          @Value("${storefront.cart-cleanup.chunk-timeout:PT2S}") Duration chunkTimeout) {
         this.webClient = webClientBuilder.baseUrl("http://localhost:8083").build();
+        this.olderThan = olderThan;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        // a purge call runs up to maxChunks deletes, far past the shared upstream response timeout
+        this.purgeTimeout = chunkTimeout.multipliedBy(maxChunks);
     }
 
-    public List<Cart> getCartsWithoutOrders() {
-        try {
-            return webClient.get()
-                    .uri("/cart/noorder")
-                    .retrieve()
-                    .bodyToFlux(Cart.class)
-                    .collectList()
-                    .block(); // Using block() for simplicity, consider reactive approach in production
-        } catch (Exception e) {
-            log.error("Error retrieving carts without orders", e);
-            throw new RuntimeException("Failed to retrieve carts", e);
-        }
-    }
-
-    public void cleanupCart(String cartId) {
-        try {
-            webClient.delete()
-                    .uri("/cart/{cartId}", cartId)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block(); // Using block() for simplicity
-
-            log.info("Successfully deleted cart with ID: {}", cartId);
-        } catch (WebClientResponseException e) {
-            log.error("Failed to delete cart with ID: {}. HTTP Status: {}", cartId, e.getStatusCode());
-        } catch (Exception e) {
-            log.error("Unexpected error deleting cart with ID: {}", cartId, e);
-        }
+    // One bounded purge on the db service; the deletes themselves run there as set-based statements
+    public CartPurgeResult purgeAbandonedCarts() {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/cart/purge")
+                        .queryParam("olderThan", olderThan)
+                        .queryParam("chunkSize", chunkSize)
+                        .queryParam("maxChunks", maxChunks)
+                        .build())
+                .httpRequest(request -> {
+                    HttpClientRequest nativeRequest = request.getNativeRequest();
+                    nativeRequest.responseTimeout(purgeTimeout);
+                })
+                .retrieve()
+                .bodyToMono(CartPurgeResult.class)
+                .block(); // Using block() for simplicity
     }
 
     @Scheduled(cron = "0 0 0 * * ?") // Run daily at midnight
     public void cleanupCarts() {
+        long start = System.nanoTime();
+        long purged = 0;
         try {
-            List<Cart> cartsToCleanup = getCartsWithoutOrders();
-
-            if (cartsToCleanup == null || cartsToCleanup.isEmpty()) {
-                log.info("No carts to clean up");
-                return;
-            }
-
-            ExecutorService executorService = Executors.newFixedThreadPool(2);
-
-            cartsToCleanup.forEach(cart ->
-                    executorService.submit(() -> cleanupCart(cart.getId()))
-            );
-
-            executorService.shutdown();
-            executorService.awaitTermination(5, TimeUnit.MINUTES);
+            CartPurgeResult result;
+            do {
+                result = purgeAbandonedCarts();
+                if (result == null) {
+                    log.warn("Cart cleanup stopped: db service sent no purge result after {} carts", purged);
+                    return;
+                }
+                purged += result.getPurged();
+                log.info("Purged {} carts in {} batches ({} ms), {} so far",
+                        result.getPurged(), result.getBatches(), result.getMillis(), purged);
+            } while (result.isMore());
 
-            log.info("Cart cleanup complete");
+            long millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+            log.info("Cart cleanup complete: {} carts in {} ms ({} carts/s)", purged, millis, purged * 1000 / millis);
         } catch (Exception e) {
-            log.error("Error during cart cleanup", e);
+            log.error("Error during cart cleanup after purging {} carts", purged, e);
         }
     }
 }
@@ -1,13 +1,16 @@
 package edu.byui.apj.storefront.jms;
 
+import edu.byui.apj.storefront.upstream.UpstreamHttpClientConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
 @EnableJms
 @SpringBootApplication
+@Import(UpstreamHttpClientConfig.class)
 public class JmsApplication {
 
     public static void main(String[] args) {
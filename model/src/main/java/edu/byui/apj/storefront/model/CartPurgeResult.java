@@ -0,0 +1,12 @@
+package edu.byui.apj.storefront.model;
+
+import lombok.Data;
+
+@Data
+public class CartPurgeResult {
+
+    long purged;
+    int batches;
+    boolean more;
+    long millis;
+}
@@ -0,0 +1,57 @@
+package edu.byui.apj.storefront.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One pooled, keep-alive Reactor Netty client shared by every {@code WebClient} built from the
+ * injected {@code WebClient.Builder}; Spring Boot hands this connector to each builder.
+ * <p>
+ * Pool metrics ({@code reactor.netty.connection.provider.*}) and connect/response timings
+ * ({@code reactor.netty.http.client.*}) are tagged by remote address, one series per upstream.
+ * Per-endpoint latency is already in {@code http.client.requests}, so the Netty uri tag is
+ * collapsed to keep the number of series down.
+ * <p>
+ * Lives outside the services' packages, so each service that calls another one imports it.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamHttpClientProperties.class)
+public class UpstreamHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamHttpClientProperties properties) {
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector upstreamClientHttpConnector(ConnectionProvider upstreamConnectionProvider,
+                                                           UpstreamHttpClientProperties properties) {
+        HttpProtocol[] protocols = properties.isH2c()
+                ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(properties.getResponseTimeout())
+                .compress(properties.isCompress())
+                .protocol(protocols)
+                .metrics(true, uri -> "/");
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,27 @@
+package edu.byui.apj.storefront.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the HTTP client every {@code WebClient} in this service uses to reach the other
+ * storefront services. Pool limits apply per upstream host.
+ */
+@Data
+@ConfigurationProperties(prefix = "storefront.upstream")
+public class UpstreamHttpClientProperties {
+    private int maxConnections = 200;
+    private int pendingAcquireMaxCount = 1000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictInBackground = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    // sends Accept-Encoding: gzip and inflates compressed responses
+    private boolean compress = true;
+    // HTTP/2 over cleartext, negotiated by upgrade; the upstream needs server.http2.enabled=true
+    private boolean h2c = false;
+}
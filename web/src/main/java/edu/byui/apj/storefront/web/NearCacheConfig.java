@@ -0,0 +1,28 @@
+package edu.byui.apj.storefront.web;
+
+import edu.byui.apj.storefront.web.service.NearCache;
+import edu.byui.apj.storefront.web.service.RequestCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One near cache per upstream, so a write to api-mongo only drops api-mongo entries.
+ */
+@Configuration
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class NearCacheConfig {
+
+    @Bean
+    public NearCache apiNearCache(RequestCoalescer coalescer, NearCacheProperties properties,
+                                  MeterRegistry meterRegistry) {
+        return new NearCache("api", coalescer, properties, meterRegistry);
+    }
+
+    @Bean
+    public NearCache mongoNearCache(RequestCoalescer coalescer, NearCacheProperties properties,
+                                    MeterRegistry meterRegistry) {
+        return new NearCache("api-mongo", coalescer, properties, meterRegistry);
+    }
+}
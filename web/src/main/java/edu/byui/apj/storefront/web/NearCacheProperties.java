@@ -0,0 +1,19 @@
+package edu.byui.apj.storefront.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing and freshness of the near caches in front of the catalog services.
+ */
+@Data
+@ConfigurationProperties(prefix = "storefront.near-cache")
+public class NearCacheProperties {
+    private long maxEntries = 10_000;
+    // served as is until this age, then served while a refresh runs in the background
+    private Duration refreshAfter = Duration.ofSeconds(30);
+    // never served past this age
+    private Duration expireAfter = Duration.ofMinutes(10);
+}
@@ -1,9 +1,12 @@
 package edu.byui.apj.storefront.web;
 
+import edu.byui.apj.storefront.upstream.UpstreamHttpClientConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(UpstreamHttpClientConfig.class)
 public class WebApplication {
 
 	public static void main(String[] args) {
@@ -2,8 +2,11 @@ package edu.byui.apj.storefront.web.controller;
 
 import edu.byui.apj.storefront.web.model.MongoTradingCard;
 import edu.byui.apj.storefront.web.service.MongoTradingCardClientService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,68 +22,77 @@ public class MongoTradingCardController {
     }
 
     // ✅ Get all trading cards (Paginated & Sorted)
+    // Every endpoint returns Mono, so Spring MVC releases the servlet thread while the upstream call runs
     @GetMapping
-    public ResponseEntity<List<MongoTradingCard>> getAllTradingCards(
+    public Mono<ResponseEntity<List<MongoTradingCard>>> getAllTradingCards(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "9") int size,
-            @RequestParam(required = false) String sort){
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor){
 
-        List<MongoTradingCard> cards = tradingCardService.getAllTradingCards(page, size, sort);
-        return ResponseEntity.ok(cards);
+        return tradingCardService.getAllTradingCards(page, size, sort, cursor)
+                .map(PageResponses.withNextLink());
+    }
+
+    // ✅ Export every trading card as NDJSON or server-sent events, relayed card by card
+    // Spring MVC writes each element as it arrives and only asks for the next once it is written
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MongoTradingCard> exportTradingCards() {
+        return tradingCardService.exportTradingCards();
     }
 
     // ✅ Get a single trading card by ID
     @GetMapping("/{id}")
-    public ResponseEntity<MongoTradingCard> getTradingCardById(@PathVariable String id) {
-        MongoTradingCard card = tradingCardService.getTradingCardById(id);
-        return ResponseEntity.ok(card);
+    public Mono<ResponseEntity<MongoTradingCard>> getTradingCardById(@PathVariable String id) {
+        return tradingCardService.getTradingCardById(id)
+                .map(ResponseEntity::ok);
     }
 
     // ✅ Create a new trading card
     @PostMapping
-    public ResponseEntity<MongoTradingCard> createTradingCard(@RequestBody MongoTradingCard tradingCard) {
-        MongoTradingCard createdCard = tradingCardService.createTradingCard(tradingCard);
-        return ResponseEntity.ok(createdCard);
+    public Mono<ResponseEntity<MongoTradingCard>> createTradingCard(@RequestBody MongoTradingCard tradingCard) {
+        return tradingCardService.createTradingCard(tradingCard)
+                .map(ResponseEntity::ok);
     }
 
     // ✅ Update an existing trading card
     @PutMapping("/{id}")
-    public ResponseEntity<MongoTradingCard> updateTradingCard(
+    public Mono<ResponseEntity<MongoTradingCard>> updateTradingCard(
             @PathVariable String id,
             @RequestBody MongoTradingCard updatedCard) {
 
-        MongoTradingCard updated = tradingCardService.updateTradingCard(id, updatedCard);
-        return ResponseEntity.ok(updated);
+        return tradingCardService.updateTradingCard(id, updatedCard)
+                .map(ResponseEntity::ok);
     }
 
     // ✅ Delete a trading card
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTradingCard(@PathVariable String id) {
-        tradingCardService.deleteTradingCard(id);
-        return ResponseEntity.noContent().build();
+    public Mono<ResponseEntity<Void>> deleteTradingCard(@PathVariable String id) {
+        return tradingCardService.deleteTradingCard(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
     }
 
     // ✅ Filter by specialty
     @GetMapping("/filter/specialty")
-    public ResponseEntity<List<MongoTradingCard>> filterBySpecialty(@RequestParam String specialty) {
-        List<MongoTradingCard> cards = tradingCardService.filterBySpecialty(specialty);
-        return ResponseEntity.ok(cards);
+    public Mono<ResponseEntity<List<MongoTradingCard>>> filterBySpecialty(@RequestParam String specialty) {
+        return tradingCardService.filterBySpecialty(specialty)
+                .map(ResponseEntity::ok);
     }
 
     // ✅ Filter by price range
     @GetMapping("/filter/price")
-    public ResponseEntity<List<MongoTradingCard>> filterByPriceRange(
+    public Mono<ResponseEntity<List<MongoTradingCard>>> filterByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
 
-        List<MongoTradingCard> cards = tradingCardService.filterByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(cards);
+        return tradingCardService.filterByPriceRange(minPrice, maxPrice)
+                .map(ResponseEntity::ok);
     }
 
     // ✅ Search trading cards by name or contribution
     @GetMapping("/search")
-    public ResponseEntity<List<MongoTradingCard>> searchTradingCards(@RequestParam String query) {
-        List<MongoTradingCard> cards = tradingCardService.searchTradingCards(query);
-        return ResponseEntity.ok(cards);
+    public Mono<ResponseEntity<List<MongoTradingCard>>> searchTradingCards(@RequestParam String query) {
+        return tradingCardService.searchTradingCards(query)
+                .map(ResponseEntity::ok);
     }
 }
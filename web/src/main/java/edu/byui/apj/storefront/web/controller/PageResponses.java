@@ -0,0 +1,38 @@
+package edu.byui.apj.storefront.web.controller;
+
+import edu.byui.apj.storefront.web.model.CardPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Re-exposes an upstream next-page cursor as a {@code Link} header on the BFF's own URL.
+ */
+final class PageResponses {
+
+    private PageResponses() {
+    }
+
+    /**
+     * Must be called on the request thread: the current URL is captured here, since the upstream
+     * response arrives on a client thread that has no request bound to it.
+     */
+    static <T> Function<CardPage<T>, ResponseEntity<List<T>>> withNextLink() {
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        return cards -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (cards.getNextCursor() != null) {
+                String next = current.cloneBuilder()
+                        .replaceQueryParam("page")
+                        .replaceQueryParam("cursor", cards.getNextCursor())
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(cards.getItems());
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package edu.byui.apj.storefront.web.controller;
+
+import edu.byui.apj.storefront.web.model.StorefrontPage;
+import edu.byui.apj.storefront.web.service.StorefrontPageService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/storefront")
+public class StorefrontController {
+
+    private final StorefrontPageService storefrontPageService;
+
+    public StorefrontController(StorefrontPageService storefrontPageService) {
+        this.storefrontPageService = storefrontPageService;
+    }
+
+    // User, featured cards and cart in one response; the upstream calls run in parallel
+    @GetMapping("/page")
+    public Mono<ResponseEntity<StorefrontPage>> getPage(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cartId,
+            @RequestParam(defaultValue = "0") int featured,
+            @RequestParam(defaultValue = "java") String featuredQuery) {
+
+        // the principal is read here, on the request thread, before any upstream call starts
+        String username = userDetails != null ? userDetails.getUsername() : null;
+        return storefrontPageService.getPage(username, featuredQuery, featured, cartId)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -2,9 +2,13 @@ package edu.byui.apj.storefront.web.controller;
 
 import edu.byui.apj.storefront.web.model.TradingCard;
 import edu.byui.apj.storefront.web.service.TradingCardClientService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -18,17 +22,20 @@ public class TradingCardController {
     }
 
     // REST API endpoints to match JavaScript requests
+    // Returning Mono hands the request to Spring MVC async handling, so no servlet thread waits on the api
     @GetMapping("/api/cards")
     @ResponseBody
-    public List<TradingCard> getAllCards(
+    public Mono<ResponseEntity<List<TradingCard>>> getAllCards(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "8") int size) {
-        return tradingCardClientService.getAllCardsPaginated(page, size);
+            @RequestParam(defaultValue = "8") int size,
+            @RequestParam(required = false) String cursor) {
+        return tradingCardClientService.getAllCardsPaginated(page, size, cursor)
+                .map(PageResponses.withNextLink());
     }
 
     @GetMapping("/api/cards/filter")
     @ResponseBody
-    public List<TradingCard> filterCards(
+    public Mono<List<TradingCard>> filterCards(
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String specialty,
@@ -38,8 +45,16 @@ public class TradingCardController {
 
     @GetMapping("/api/cards/search")
     @ResponseBody
-    public List<TradingCard> searchCards(@RequestParam String query) {
+    public Mono<List<TradingCard>> searchCards(@RequestParam String query) {
         return tradingCardClientService.searchByNameOrContribution(query);
     }
 
+    // Whole catalog as NDJSON or server-sent events; each card is written as soon as it arrives
+    // from the api and the next one is only requested after that, so nothing is buffered here
+    @GetMapping(value = "/api/cards/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @ResponseBody
+    public Flux<TradingCard> exportCards() {
+        return tradingCardClientService.exportCards();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package edu.byui.apj.storefront.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CardPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
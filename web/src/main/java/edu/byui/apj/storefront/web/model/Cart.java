@@ -0,0 +1,14 @@
+package edu.byui.apj.storefront.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class Cart {
+    private String id;
+    private String personId;
+    private List<CartItem> items;
+}
@@ -0,0 +1,15 @@
+package edu.byui.apj.storefront.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CartItem {
+    private Long id;
+    private String cardId;
+    private String name;
+    private Double price;
+    private Integer quantity;
+    private Long version;
+}
@@ -1,5 +1,6 @@
 package edu.byui.apj.storefront.web.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -7,6 +8,8 @@ import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
+// Grid reads ask api-mongo for a projection; fields it left out are not sent on as null
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class MongoTradingCard {
     private String _id;
     private String name;
@@ -0,0 +1,16 @@
+package edu.byui.apj.storefront.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StorefrontPage {
+    private String username;
+    private List<MongoTradingCard> featured;
+    private Cart cart;
+    // sections whose upstream call failed or timed out and were filled with a fallback instead
+    private List<String> degraded;
+}
@@ -0,0 +1,28 @@
+package edu.byui.apj.storefront.web.service;
+
+import edu.byui.apj.storefront.web.model.Cart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+@Service
+public class CartClientService {
+
+    private final WebClient webClient;
+
+    public CartClientService(WebClient.Builder webClientBuilder,
+                             @Value("${cart.service.url}/cart") String cartServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(cartServiceUrl).build();
+    }
+
+    // Empty when the db service has no cart with this id
+    public Mono<Cart> getCart(String cartId) {
+        return webClient.get()
+                .uri("/{cartId}", cartId)
+                .retrieve()
+                .bodyToMono(Cart.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+}
@@ -1,110 +1,133 @@
 package edu.byui.apj.storefront.web.service;
+import edu.byui.apj.storefront.web.model.CardPage;
 import edu.byui.apj.storefront.web.model.MongoTradingCard;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class MongoTradingCardClientService {
 
+    // ✅ What the product grid renders, contribution line included; other fields stay in api-mongo
+    static final String GRID_FIELDS = "name,specialty,contribution,price,imageUrl";
+
     private final WebClient webClient;
+    private final NearCache nearCache;
 
-    public MongoTradingCardClientService(@Value("${tradingcard.mongo.service.url}/api/trading-cards") String tradingCardServiceUrl) {
-        this.webClient = WebClient.builder().baseUrl(tradingCardServiceUrl).build();
+    // ✅ Reads are served from the near cache when possible; misses and refreshes are coalesced
+    public MongoTradingCardClientService(WebClient.Builder webClientBuilder,
+                                         @Qualifier("mongoNearCache") NearCache nearCache,
+                                         @Value("${tradingcard.mongo.service.url}/api/trading-cards") String tradingCardServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(tradingCardServiceUrl).build();
+        this.nearCache = nearCache;
     }
 
     // ✅ Get all trading cards (paginated & sorted)
-    public List<MongoTradingCard> getAllTradingCards(int page, int size, String sort) {
-        return webClient.get()
+    public Mono<CardPage<MongoTradingCard>> getAllTradingCards(int page, int size, String sort, String cursor) {
+        return nearCache.get(Arrays.asList("mongo-cards", page, size, sort, cursor), () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .queryParam("page", page)
                         .queryParam("size", size)
                         .queryParamIfPresent("sort", Optional.ofNullable(sort))
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParam("fields", GRID_FIELDS)
                         .build())
                 .retrieve()
-                .bodyToFlux(MongoTradingCard.class)
-                .collectList()
-                .block();  // Blocking call
+                .toEntityList(MongoTradingCard.class)
+                .map(response -> new CardPage<>(response.getBody(), NextCursors.from(response.getHeaders()))));
     }
 
-    // ✅ Get a single trading card by ID
-    public MongoTradingCard getTradingCardById(String id) {
+    // ✅ Stream every trading card, decoded one NDJSON line at a time as api-mongo writes them
+    public Flux<MongoTradingCard> exportTradingCards() {
         return webClient.get()
+                .uri("/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(MongoTradingCard.class);
+    }
+
+    // ✅ Get a single trading card by ID
+    public Mono<MongoTradingCard> getTradingCardById(String id) {
+        return nearCache.get(List.of("mongo-card", id), () -> webClient.get()
                 .uri("/{id}", id)
                 .retrieve()
-                .bodyToMono(MongoTradingCard.class)
-                .block();  // Blocking call
+                .bodyToMono(MongoTradingCard.class));
     }
 
     // ✅ Create a new trading card
-    public MongoTradingCard createTradingCard(MongoTradingCard tradingCard) {
+    public Mono<MongoTradingCard> createTradingCard(MongoTradingCard tradingCard) {
         return webClient.post()
                 .bodyValue(tradingCard)
                 .retrieve()
                 .bodyToMono(MongoTradingCard.class)
-                .block();  // Blocking call
+                .doOnSuccess(card -> nearCache.invalidateAll());
     }
 
     // ✅ Update an existing trading card
-    public MongoTradingCard updateTradingCard(String id, MongoTradingCard updatedCard) {
+    public Mono<MongoTradingCard> updateTradingCard(String id, MongoTradingCard updatedCard) {
         return webClient.put()
                 .uri("/{id}", id)
                 .bodyValue(updatedCard)
                 .retrieve()
                 .bodyToMono(MongoTradingCard.class)
-                .block();  // Blocking call
+                .doOnSuccess(card -> nearCache.invalidateAll());
     }
 
     // ✅ Delete a trading card
-    public void deleteTradingCard(String id) {
-        webClient.delete()
+    public Mono<Void> deleteTradingCard(String id) {
+        return webClient.delete()
                 .uri("/{id}", id)
                 .retrieve()
                 .bodyToMono(Void.class)
-                .block();  // Blocking call
+                .doOnSuccess(done -> nearCache.invalidateAll());
     }
 
     // ✅ Filter by specialty
-    public List<MongoTradingCard> filterBySpecialty(String specialty) {
-        return webClient.get()
+    public Mono<List<MongoTradingCard>> filterBySpecialty(String specialty) {
+        return nearCache.get(List.of("mongo-specialty", specialty), () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/filter/specialty")
                         .queryParam("specialty", specialty)
+                        .queryParam("fields", GRID_FIELDS)
                         .build())
                 .retrieve()
                 .bodyToFlux(MongoTradingCard.class)
-                .collectList()
-                .block();  // Blocking call
+                .collectList());
     }
 
     // ✅ Filter by price range
-    public List<MongoTradingCard> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return webClient.get()
+    public Mono<List<MongoTradingCard>> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return nearCache.get(List.of("mongo-price", minPrice, maxPrice), () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/filter/price")
                         .queryParam("minPrice", minPrice)
                         .queryParam("maxPrice", maxPrice)
+                        .queryParam("fields", GRID_FIELDS)
                         .build())
                 .retrieve()
                 .bodyToFlux(MongoTradingCard.class)
-                .collectList()
-                .block();  // Blocking call
+                .collectList());
     }
 
     // ✅ Search trading cards by name or contribution
-    public List<MongoTradingCard> searchTradingCards(String query) {
-        return webClient.get()
+    public Mono<List<MongoTradingCard>> searchTradingCards(String query) {
+        return nearCache.get(List.of("mongo-search", query), () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/search")
                         .queryParam("query", query)
+                        .queryParam("fields", GRID_FIELDS)
                         .build())
                 .retrieve()
                 .bodyToFlux(MongoTradingCard.class)
-                .collectList()
-                .block();  // Blocking call
+                .collectList());
     }
 }
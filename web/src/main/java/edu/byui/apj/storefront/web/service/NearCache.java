@@ -0,0 +1,81 @@
+package edu.byui.apj.storefront.web.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.byui.apj.storefront.web.NearCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Local copy of recent upstream reads, bounded by entry count with Caffeine's W-TinyLFU eviction.
+ * <p>
+ * Entries younger than {@code refreshAfter} are served as is. Older ones are still served, but
+ * the read also starts a background refresh, so the caller never waits on the network for data
+ * that is merely a little old (stale-while-revalidate). Loads and refreshes go through the
+ * {@link RequestCoalescer}, so a burst of misses or stale hits costs one upstream call. After
+ * {@link #invalidateAll()} nothing loaded before the call is written back.
+ */
+@Slf4j
+public class NearCache {
+
+    private final String name;
+    private final RequestCoalescer coalescer;
+    private final long refreshAfterNanos;
+    private final Cache<List<?>, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public NearCache(String name, RequestCoalescer coalescer, NearCacheProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.name = name;
+        this.coalescer = coalescer;
+        this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getExpireAfter())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "near." + name);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(List<?> key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Entry entry = cache.getIfPresent(key);
+            if (entry == null) {
+                return load(key, call);
+            }
+            if (System.nanoTime() - entry.loadedAt() > refreshAfterNanos) {
+                load(key, call).subscribe(
+                        value -> { },
+                        e -> log.warn("Background refresh of {} {} failed, keeping the cached value", name, key, e));
+            }
+            return Mono.just((T) entry.value());
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private <T> Mono<T> load(List<?> key, Supplier<Mono<T>> call) {
+        long loadGeneration = generation.get();
+        // the generation in the key keeps reads after a write from joining a load that started before it
+        return coalescer.coalesce(List.of(name, loadGeneration, key), () -> call.get().doOnNext(value -> {
+            cache.put(key, new Entry(value, System.nanoTime()));
+            // checked after the put, so an invalidation racing with it cannot be missed
+            if (generation.get() != loadGeneration) {
+                cache.invalidate(key);
+            }
+        }));
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
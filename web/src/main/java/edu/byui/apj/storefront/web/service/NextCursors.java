@@ -0,0 +1,29 @@
+package edu.byui.apj.storefront.web.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Pulls the cursor out of an upstream {@code Link: <...?cursor=...>; rel="next"} header so the
+ * BFF can hand it to the browser under its own URL.
+ */
+final class NextCursors {
+
+    private NextCursors() {
+    }
+
+    static String from(HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            int open = link.indexOf('<');
+            int close = link.indexOf('>');
+            if (open < 0 || close < open || !link.substring(close).contains("rel=\"next\"")) {
+                continue;
+            }
+            return UriComponentsBuilder.fromUriString(link.substring(open + 1, close))
+                    .build()
+                    .getQueryParams()
+                    .getFirst("cursor");
+        }
+        return null;
+    }
+}
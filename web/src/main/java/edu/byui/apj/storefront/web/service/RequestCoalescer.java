@@ -0,0 +1,52 @@
+package edu.byui.apj.storefront.web.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for upstream reads: while a call for a key is in flight, later callers with the
+ * same key subscribe to that call instead of starting their own, and all of them get its result
+ * or its error. The key is dropped as soon as the call finishes, so nothing is cached beyond the
+ * in-flight window. Only use it for idempotent reads.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<List<?>, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("upstream.requests.coalesced")
+                .description("Upstream reads served by joining an identical call already in flight")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(List<?> key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<T>> created = new AtomicReference<>();
+            Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+                Mono<T> mono = call.get()
+                        // removed before the result reaches the waiters, so a caller that reacts to it
+                        // starts a new call; remove(key, value) so a late finish never drops a newer one
+                        .doOnTerminate(() -> inFlight.remove(k, created.get()))
+                        .doOnCancel(() -> inFlight.remove(k, created.get()))
+                        .share();
+                created.set(mono);
+                return mono;
+            });
+            if (created.get() == null) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package edu.byui.apj.storefront.web.service;
+
+import edu.byui.apj.storefront.web.model.Cart;
+import edu.byui.apj.storefront.web.model.MongoTradingCard;
+import edu.byui.apj.storefront.web.model.StorefrontPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds everything a storefront page needs on load in one round trip from the browser.
+ * <p>
+ * The featured cards (api-mongo) and the cart (db) are requested at the same time, so the page
+ * waits for the slower of the two rather than their sum. Each call has its own timeout; a call
+ * that fails or runs over is replaced by an empty fallback and named in
+ * {@link StorefrontPage#getDegraded()}, so one slow service does not hold up or break the page.
+ */
+@Slf4j
+@Service
+public class StorefrontPageService {
+
+    private final MongoTradingCardClientService mongoTradingCardClientService;
+    private final CartClientService cartClientService;
+    private final Duration upstreamTimeout;
+
+    public StorefrontPageService(MongoTradingCardClientService mongoTradingCardClientService,
+                                 CartClientService cartClientService,
+                                 @Value("${storefront.page.upstream-timeout:2s}") Duration upstreamTimeout) {
+        this.mongoTradingCardClientService = mongoTradingCardClientService;
+        this.cartClientService = cartClientService;
+        this.upstreamTimeout = upstreamTimeout;
+    }
+
+    public Mono<StorefrontPage> getPage(String username, String featuredQuery, int featuredCount, String cartId) {
+        List<String> degraded = new CopyOnWriteArrayList<>();
+
+        Mono<List<MongoTradingCard>> featured = featuredCount <= 0
+                ? Mono.just(List.of())
+                : withFallback("featured", mongoTradingCardClientService.searchTradingCards(featuredQuery)
+                        .map(cards -> cards.stream().limit(featuredCount).toList()), List.of(), degraded);
+        // Optional, because zip drops everything when one of its sources completes empty
+        Mono<Optional<Cart>> cart = cartId == null || cartId.isBlank()
+                ? Mono.just(Optional.empty())
+                : withFallback("cart", cartClientService.getCart(cartId).map(Optional::of),
+                        Optional.empty(), degraded);
+
+        return Mono.zip(featured, cart)
+                .map(sections -> new StorefrontPage(username, sections.getT1(),
+                        sections.getT2().orElse(null), List.copyOf(degraded)));
+    }
+
+    private <T> Mono<T> withFallback(String section, Mono<T> call, T fallback, List<String> degraded) {
+        return call.timeout(upstreamTimeout)
+                .defaultIfEmpty(fallback)
+                .onErrorResume(e -> {
+                    log.warn("Storefront page section {} unavailable: {}", section, e.toString());
+                    degraded.add(section);
+                    return Mono.just(fallback);
+                });
+    }
+}
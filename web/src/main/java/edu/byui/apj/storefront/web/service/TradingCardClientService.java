@@ -1,32 +1,46 @@
 package edu.byui.apj.storefront.web.service;
 
+import edu.byui.apj.storefront.web.model.CardPage;
 import edu.byui.apj.storefront.web.model.TradingCard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class TradingCardClientService {
     private final WebClient webClient;
+    private final NearCache nearCache;
 
-    public TradingCardClientService(WebClient.Builder webClientBuilder) {
+    // Reads are served from the near cache when possible; misses and refreshes are coalesced
+    public TradingCardClientService(WebClient.Builder webClientBuilder,
+                                    @Qualifier("apiNearCache") NearCache nearCache) {
         this.webClient = webClientBuilder.baseUrl("http://localhost:8081").build();
+        this.nearCache = nearCache;
     }
 
-    public List<TradingCard> getAllCardsPaginated(int page, int size) {
-        return webClient.get()
-                .uri("/api/cards?page={page}&size={size}", page, size)
+    public Mono<CardPage<TradingCard>> getAllCardsPaginated(int page, int size, String cursor) {
+        return nearCache.get(Arrays.asList("cards", page, size, cursor), () -> webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/cards")
+                        .queryParam("page", page)
+                        .queryParam("size", size)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
                 .retrieve()
-                .bodyToFlux(TradingCard.class)
-                .collectList()
-                .block();
+                .toEntityList(TradingCard.class)
+                .map(response -> new CardPage<>(response.getBody(), NextCursors.from(response.getHeaders()))));
     }
 
-    public List<TradingCard> filterAndSort(BigDecimal minPrice, BigDecimal maxPrice, String specialty, String sort) {
-        return webClient.get()
+    public Mono<List<TradingCard>> filterAndSort(BigDecimal minPrice, BigDecimal maxPrice, String specialty, String sort) {
+        return nearCache.get(Arrays.asList("filter", minPrice, maxPrice, specialty, sort), () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/api/cards/filter")
                         .queryParamIfPresent("minPrice", Optional.ofNullable(minPrice))
@@ -36,16 +50,23 @@ public class TradingCardClientService {
                         .build())
                 .retrieve()
                 .bodyToFlux(TradingCard.class)
-                .collectList()
-                .block();
+                .collectList());
     }
 
-    public List<TradingCard> searchByNameOrContribution(String query) {
-        return webClient.get()
+    public Mono<List<TradingCard>> searchByNameOrContribution(String query) {
+        return nearCache.get(List.of("search", query), () -> webClient.get()
                 .uri("/api/cards/search?query={query}", query)
                 .retrieve()
                 .bodyToFlux(TradingCard.class)
-                .collectList()
-                .block();
+                .collectList());
+    }
+
+    // Not cached or coalesced: cards are decoded one NDJSON line at a time as the api writes them
+    public Flux<TradingCard> exportCards() {
+        return webClient.get()
+                .uri("/api/cards/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(TradingCard.class);
     }
-}
\ No newline at end of file
+}
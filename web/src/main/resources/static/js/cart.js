@@ -6,7 +6,7 @@ function initCart() {
     if (!cartid) {
         resetCart()
     } else {
-        fetchCart(cartid)
+        loadSavedCart(cartid)
             .then((data) => {
                 user_cart = data
                 if (!user_cart) {
@@ -26,6 +26,24 @@ function initCart() {
     }
 }
 
+// The storefront page aggregate already asked for this cart; only go to the db service
+// directly when that section was unavailable, the aggregate call failed outright, or the
+// cart has to be reloaded later on (the aggregate only reflects the page load).
+let pageCartUsed = false
+
+function loadSavedCart(cartId) {
+    if (typeof storefrontPage === "undefined" || pageCartUsed) {
+        return fetchCart(cartId)
+    }
+    pageCartUsed = true
+    return storefrontPage.then(page => {
+        if (!page || page.degraded.includes("cart")) {
+            return fetchCart(cartId)
+        }
+        return page.cart
+    })
+}
+
 function createCart(cart) {
     fetch('http://localhost:8083/cart', {
         method: 'POST',
@@ -112,6 +130,7 @@ function addItemToCartDB(item) {
         })
         .then(updatedCart => {
             console.log("Updated Cart:", updatedCart);
+            syncItemVersions(updatedCart)
         })
         .catch(error => {
             console.error("Error adding item to cart:", error);
@@ -127,6 +146,10 @@ function updateItem(modifiedItem){
         body: JSON.stringify(modifiedItem)
     })
         .then(response => {
+            if (response.status === 409) {
+                // changed elsewhere since we loaded it; start again from what the server has
+                initCart()
+            }
             if (!response.ok) {
                 throw new Error(`Failed to add item: ${response.status} ${response.statusText}`);
             }
@@ -134,12 +157,23 @@ function updateItem(modifiedItem){
         })
         .then(responseBody => {
             console.log("Updated Item:", responseBody);
+            syncItemVersions(responseBody)
         })
         .catch(error => {
             console.error("Error adding item to cart:", error);
         });
 }
 
+// Item edits are versioned on the server; keep the version of each item we hold up to date
+function syncItemVersions(cart) {
+    cart.items.forEach(saved => {
+        const local = user_cart.items.find(item => item.id === saved.id)
+        if (local) {
+            local.version = saved.version
+        }
+    })
+}
+
 function updateCartDisplay(cart) {
     document.getElementById("cart-item-count").innerText = `${cart.items.length}`
     displayCartItems(cart.items)
@@ -1,24 +1,43 @@
-// Featured pioneers data
-function fetchFeaturedCards() {
+// Featured pioneers, login info and the saved cart come back from one aggregate call.
+// cart.js picks the cart up from this promise instead of asking the db service again.
+function loadStorefrontPage() {
+    const params = new URLSearchParams()
     if (document.getElementById("homepage")) {
-        fetch(`http://localhost:8080/mongo/cards/search?query=java`)
-            .then(response => {
-                if (!response.ok) {
-                    throw new Error(`HTTP error! Status: ${response.status}`)
-                }
-                return response.json()
-            })
-            .then(data => {
-                console.log("Search results:", data)
-                if (data.length > 4){
-                    data = data.slice(0, 4)
-                }
-                renderCards(data)
-            })
-            .catch(error => {
-                console.error("Error fetching featured cards:", error)
-            })
+        params.append("featured", "4")
+        params.append("featuredQuery", "java")
     }
+    const cartid = localStorage.getItem("cartid")
+    if (cartid) {
+        params.append("cartId", cartid)
+    }
+    return fetch(`http://localhost:8080/storefront/page?${params.toString()}`)
+        .then(response => {
+            if (!response.ok) {
+                throw new Error(`HTTP error! Status: ${response.status}`)
+            }
+            return response.json()
+        })
+        .then(data => {
+            console.log("Storefront page:", data)
+            if (data.degraded.length !== 0) {
+                console.warn("Storefront page sections unavailable:", data.degraded)
+            }
+            if (data.username) {
+                username = "Logged in as: " + data.username
+            }
+            else {
+                console.log("No data found for login - not logged in.")
+            }
+            document.getElementById("username").innerText = username
+            if (document.getElementById("homepage")) {
+                renderCards(data.featured)
+            }
+            return data
+        })
+        .catch(error => {
+            console.error("Error loading storefront page:", error)
+            return null
+        })
 }
 
 // Render featured cards
@@ -37,7 +56,7 @@ function renderCards(featuredCards) {
                     <span class="price">$${card.price}</span>                    
                     <button class="add-to-cart" onclick="addToCart('${card._id}', ${card.price}, '${card.name}')">Add to Cart</button>                    
                 </div>
-                <p class="contribution">${card.contribution}</p>
+                ${card.contribution ? `<p class="contribution">${card.contribution}</p>` : ""}
             `;
         featuredCardsContainer.appendChild(cardElement);
     });
@@ -85,29 +104,6 @@ document.querySelector("#theory-card")?.addEventListener("click", () => {
     window.location.href = "product-listing.html?specialty=Algorithms_Theory";
 })
 
-function getUser(){
-    fetch(`http://localhost:8080/user/me`)
-        .then(response => {
-            if (!response.ok) {
-                throw new Error(`HTTP error getting username! Status: ${response.status}`)
-            }
-            return response.text()
-        })
-        .then(data => {
-            if (data.length !== 0) {
-                username = data
-            }
-            else{
-                console.log("No data found for login - not logged in.")
-            }
-            document.getElementById("username").innerText = username
-        })
-        .catch(error => {
-            console.error("Error getting login info:", error)
-        })
-}
-
 let username = "Not Logged In"
 
-fetchFeaturedCards()
-getUser()
\ No newline at end of file
+const storefrontPage = loadStorefrontPage()
@@ -88,7 +88,7 @@ function renderCards(cards) {
                     <span class="price">$${card.price}</span>
                     <button class="add-to-cart" onclick="addToCart('${card._id}', ${card.price}, '${card.name}')">Add to Cart</button>                    
                 </div>
-                <p class="contribution">${card.contribution}</p>
+                ${card.contribution ? `<p class="contribution">${card.contribution}</p>` : ""}
             `
         productListingCardsContainer.appendChild(cardElement)
     })
@@ -0,0 +1,67 @@
+package edu.byui.apj.storefront.web.service;
+
+import edu.byui.apj.storefront.web.NearCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class NearCacheTest {
+
+    private static final List<String> KEY = List.of("mongo-search", "java");
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void freshEntriesAreServedWithoutCallingUpstream() {
+        NearCache nearCache = nearCache(Duration.ofMinutes(1));
+
+        assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v1");
+        assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v1");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void staleEntriesAreServedWhileRefreshingInTheBackground() {
+        NearCache nearCache = nearCache(Duration.ZERO);
+
+        assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v1");
+        assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v1");
+        await().untilAsserted(() -> assertThat(upstreamCalls).hasValue(2));
+        await().untilAsserted(() -> assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v2"));
+    }
+
+    @Test
+    void invalidateAllForcesTheNextReadUpstream() {
+        NearCache nearCache = nearCache(Duration.ofMinutes(1));
+
+        nearCache.get(KEY, this::upstream).block();
+        nearCache.invalidateAll();
+
+        assertThat(nearCache.get(KEY, this::upstream).block()).isEqualTo("v2");
+    }
+
+    private NearCache nearCache(Duration refreshAfter) {
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.setRefreshAfter(refreshAfter);
+        return new NearCache("test", new RequestCoalescer(meterRegistry), properties, meterRegistry);
+    }
+
+    private Mono<String> upstream() {
+        return Mono.fromCallable(() -> "v" + upstreamCalls.incrementAndGet());
+    }
+}
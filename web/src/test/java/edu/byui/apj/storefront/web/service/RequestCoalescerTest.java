@@ -0,0 +1,60 @@
+package edu.byui.apj.storefront.web.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private RequestCoalescer coalescer;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void concurrentIdenticalReadsShareOneUpstreamCall() {
+        List<String> results = Flux.range(0, 50)
+                .flatMap(i -> coalescer.coalesce(List.of("search", "java"), this::slowUpstream))
+                .collectList()
+                .block();
+
+        assertThat(results).hasSize(50).containsOnly("result-1");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void differentKeysAndLaterReadsCallUpstreamAgain() {
+        coalescer.coalesce(List.of("search", "java"), this::slowUpstream).block();
+        coalescer.coalesce(List.of("search", "kotlin"), this::slowUpstream).block();
+        coalescer.coalesce(List.of("search", "java"), this::slowUpstream).block();
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void errorsReachEveryWaiterAndAreNotKept() {
+        Mono<String> failing = coalescer.coalesce(List.of("broken"),
+                () -> Mono.<String>error(new IllegalStateException("upstream down")).delaySubscription(Duration.ofMillis(50)));
+
+        assertThatThrownBy(failing::block).hasMessageContaining("upstream down");
+        assertThat(coalescer.coalesce(List.of("broken"), this::slowUpstream).block()).isEqualTo("result-1");
+    }
+
+    private Mono<String> slowUpstream() {
+        return Mono.fromCallable(() -> "result-" + upstreamCalls.incrementAndGet())
+                .delayElement(Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.byui.apj.storefront.web.service;
+
+import edu.byui.apj.storefront.web.model.Cart;
+import edu.byui.apj.storefront.web.model.MongoTradingCard;
+import edu.byui.apj.storefront.web.model.StorefrontPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorefrontPageServiceTest {
+
+    private MongoTradingCardClientService mongoClient;
+    private CartClientService cartClient;
+    private StorefrontPageService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = mock(MongoTradingCardClientService.class);
+        cartClient = mock(CartClientService.class);
+        service = new StorefrontPageService(mongoClient, cartClient, Duration.ofMillis(500));
+    }
+
+    @Test
+    void upstreamCallsRunInParallel() {
+        when(mongoClient.searchTradingCards("java"))
+                .thenReturn(Mono.just(cards(6)).delayElement(Duration.ofMillis(300)));
+        when(cartClient.getCart("cart-1"))
+                .thenReturn(Mono.just(new Cart("cart-1", null, List.of())).delayElement(Duration.ofMillis(300)));
+
+        long start = System.nanoTime();
+        StorefrontPage page = service.getPage("apj-user", "java", 4, "cart-1").block();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(page.getUsername()).isEqualTo("apj-user");
+        assertThat(page.getFeatured()).hasSize(4);
+        assertThat(page.getCart().getId()).isEqualTo("cart-1");
+        assertThat(page.getDegraded()).isEmpty();
+        assertThat(millis).isLessThan(550);
+    }
+
+    @Test
+    void slowOrFailingSectionFallsBackWithoutFailingThePage() {
+        when(mongoClient.searchTradingCards("java")).thenReturn(Mono.never());
+        when(cartClient.getCart("cart-1")).thenReturn(Mono.error(new IllegalStateException("db down")));
+
+        StorefrontPage page = service.getPage(null, "java", 4, "cart-1").block();
+
+        assertThat(page.getFeatured()).isEmpty();
+        assertThat(page.getCart()).isNull();
+        assertThat(page.getDegraded()).containsExactlyInAnyOrder("featured", "cart");
+    }
+
+    @Test
+    void unknownCartIsNotDegraded() {
+        when(cartClient.getCart("missing")).thenReturn(Mono.empty());
+
+        StorefrontPage page = service.getPage(null, "java", 0, "missing").block();
+
+        assertThat(page.getCart()).isNull();
+        assertThat(page.getDegraded()).isEmpty();
+        verify(mongoClient, never()).searchTradingCards("java");
+    }
+
+    private static List<MongoTradingCard> cards(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new MongoTradingCard("id-" + i, "Card " + i, "Programming Languages",
+                        "Contribution " + i, BigDecimal.TEN, "image-" + i))
+                .toList();
+    }
+}